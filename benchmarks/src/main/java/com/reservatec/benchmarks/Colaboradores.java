@@ -0,0 +1,70 @@
+package com.reservatec.benchmarks;
+
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Arma componentes de la aplicación a partir de colaboradores registrados por tipo, en lugar de pasar
+ * los argumentos del constructor por posición. Cada parámetro del constructor debe tener un colaborador o estar
+ * declarado con {@link #sinUsar}; si falta alguno, {@link #crear} falla antes de medir y dice cuáles faltan.
+ * Así un constructor que gana o reordena colaboradores no deja un benchmark armado con el argumento equivocado.
+ */
+public final class Colaboradores {
+
+    private final Map<Class<?>, Object> registrados = new HashMap<>();
+    private final Set<Class<?>> sinUsar = new HashSet<>();
+
+    /**
+     * Registra el colaborador que recibirá todo parámetro del tipo dado.
+     */
+    public <T> Colaboradores con(Class<T> tipo, T colaborador) {
+        registrados.put(tipo, Objects.requireNonNull(colaborador, tipo.getSimpleName()));
+        return this;
+    }
+
+    /**
+     * Declara colaboradores que el camino medido no usa; sus parámetros reciben null.
+     */
+    public Colaboradores sinUsar(Class<?>... tipos) {
+        sinUsar.addAll(List.of(tipos));
+        return this;
+    }
+
+    /**
+     * Crea el componente con su único constructor público.
+     *
+     * @throws IllegalStateException si algún parámetro no tiene colaborador ni está declarado sin usar
+     */
+    public <T> T crear(Class<T> tipo) {
+        Constructor<?>[] constructores = tipo.getConstructors();
+        if (constructores.length != 1) {
+            throw new IllegalStateException(tipo.getSimpleName() + " no tiene un único constructor público");
+        }
+
+        Class<?>[] parametros = constructores[0].getParameterTypes();
+        Object[] argumentos = new Object[parametros.length];
+        List<String> faltantes = new ArrayList<>();
+        for (int i = 0; i < parametros.length; i++) {
+            if (registrados.containsKey(parametros[i])) {
+                argumentos[i] = registrados.get(parametros[i]);
+            } else if (!sinUsar.contains(parametros[i])) {
+                faltantes.add(parametros[i].getSimpleName());
+            }
+        }
+        if (!faltantes.isEmpty()) {
+            throw new IllegalStateException("Faltan colaboradores para " + tipo.getSimpleName() + ": " + faltantes);
+        }
+
+        try {
+            return tipo.cast(constructores[0].newInstance(argumentos));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("No se pudo crear " + tipo.getSimpleName(), e);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.reservatec.benchmarks;
+
+import com.reservatec.client.RetencionClient;
+import com.reservatec.entity.Espacio;
+import com.reservatec.entity.Horario;
+import com.reservatec.entity.Reserva;
+import com.reservatec.entity.Usuario;
+import com.reservatec.entity.enums.EstadoReserva;
+import com.reservatec.repository.HorarioRepository;
+import com.reservatec.repository.ReservaRepository;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Datos de reservas generados de forma determinista y repositorios en memoria que los consultan
+ * con la misma semántica que las consultas JPQL usadas en las rutas medidas.
+ * Por defecto: 5 espacios, 14 horarios de una hora desde las 7:00, 14 días desde hoy y 2000 usuarios
+ * repartidos en 5 carreras, con cerca del 60 % de los horarios reservados.
+ */
+public final class DatosEnMemoria {
+
+    public static final String[] CARRERAS = {
+            "Diseño y Desarrollo de Software", "Mecatrónica Industrial", "Electricidad Industrial",
+            "Administración de Redes", "Big Data y Ciencia de Datos"};
+
+    public final List<Espacio> espacios = new ArrayList<>();
+    public final List<Horario> horarios = new ArrayList<>();
+    public final List<Usuario> usuarios = new ArrayList<>();
+    public final List<Reserva> reservas = new ArrayList<>();
+    public final LocalDate hoy = LocalDate.now();
+    public final RedisEnMemoria redis = new RedisEnMemoria();
+
+    private final Map<Long, List<Reserva>> porUsuario = new HashMap<>();
+    private final Map<String, List<Reserva>> porEspacioYFecha = new HashMap<>();
+
+    public DatosEnMemoria() {
+        this(5, 14, 14, 2000, 0.6);
+    }
+
+    public DatosEnMemoria(int cantidadEspacios, int cantidadHorarios, int dias, int cantidadUsuarios, double ocupacion) {
+        Random aleatorio = new Random(42);
+
+        for (long i = 1; i <= cantidadEspacios; i++) {
+            Espacio espacio = new Espacio();
+            espacio.setId(i);
+            espacio.setNombre("Cancha " + i);
+            espacio.setAforo(12);
+            espacios.add(espacio);
+        }
+        for (long i = 1; i <= cantidadHorarios; i++) {
+            Horario horario = new Horario();
+            horario.setId(i);
+            horario.setHoraInicio(LocalTime.of(6 + (int) i, 0));
+            horario.setHoraFin(LocalTime.of(7 + (int) i, 0));
+            horarios.add(horario);
+        }
+        for (long i = 1; i <= cantidadUsuarios; i++) {
+            Usuario usuario = new Usuario();
+            usuario.setId(i);
+            usuario.setCode("U" + i);
+            usuario.setEmail("usuario" + i + "@tecsup.edu.pe");
+            usuario.setName("Usuario " + i);
+            usuario.setRol("USER");
+            usuario.setCarrera(CARRERAS[(int) (i % CARRERAS.length)]);
+            usuarios.add(usuario);
+        }
+
+        long id = 0;
+        for (Espacio espacio : espacios) {
+            for (int d = 0; d < dias; d++) {
+                LocalDate fecha = hoy.plusDays(d);
+                for (Horario horario : horarios) {
+                    if (aleatorio.nextDouble() >= ocupacion) continue;
+
+                    Reserva reserva = new Reserva();
+                    reserva.setId(++id);
+                    reserva.setCodigoReserva(String.format("R%05d", id));
+                    reserva.setFecha(fecha);
+                    reserva.setEspacio(espacio);
+                    reserva.setHorario(horario);
+                    reserva.setUsuario(usuarios.get(aleatorio.nextInt(usuarios.size())));
+                    reserva.setEstado(estadoAleatorio(aleatorio));
+                    reserva.setFechaCreacion(LocalDateTime.now().minusDays(1));
+                    reserva.setFechaActualizacion(LocalDateTime.now());
+                    agregar(reserva);
+
+                    if (reserva.getEstado() == EstadoReserva.PENDIENTE) {
+                        redis.poner(RetencionClient.clave(espacio.getId(), horario.getId(), fecha),
+                                reserva.getUsuario().getId().toString());
+                    }
+                }
+            }
+        }
+    }
+
+    public void agregar(Reserva reserva) {
+        reservas.add(reserva);
+        porUsuario.computeIfAbsent(reserva.getUsuario().getId(), k -> new ArrayList<>()).add(reserva);
+        porEspacioYFecha.computeIfAbsent(clave(reserva.getEspacio().getId(), reserva.getFecha()), k -> new ArrayList<>())
+                .add(reserva);
+    }
+
+    /**
+     * Usuario con al menos una reserva ACTIVA, para medir el cronómetro con datos.
+     */
+    public Long usuarioConReservaActiva() {
+        return reservas.stream()
+                .filter(r -> r.getEstado() == EstadoReserva.ACTIVA)
+                .map(r -> r.getUsuario().getId())
+                .findFirst()
+                .orElseThrow();
+    }
+
+    public ReservaRepository reservaRepository() {
+        return Fakes.crear(ReservaRepository.class, Map.of(
+                "findProximaConHorario", args -> {
+                    @SuppressWarnings("unchecked")
+                    Collection<EstadoReserva> estados = (Collection<EstadoReserva>) args[1];
+                    Limit limite = (Limit) args[2];
+                    return delUsuario((Long) args[0]).stream()
+                            .filter(r -> estados.contains(r.getEstado()))
+                            .sorted(Comparator.comparing(Reserva::getFecha)
+                                    .thenComparing(r -> r.getHorario().getHoraInicio()))
+                            .limit(limite.isLimited() ? limite.max() : Long.MAX_VALUE)
+                            .collect(Collectors.toList());
+                },
+                "findParaElegibilidad", args -> {
+                    LocalDate finEspera = (LocalDate) args[1];
+                    return delUsuario((Long) args[0]).stream()
+                            .filter(r -> switch (r.getEstado()) {
+                                case PENDIENTE -> true;
+                                case ACTIVA, CURSO -> Boolean.TRUE.equals(r.getActivo());
+                                case COMPLETADA, CANCELADA -> r.getFecha().isAfter(finEspera);
+                                default -> false;
+                            })
+                            .collect(Collectors.toList());
+                },
+                "findByEspacioIdAndFechaConHorarioYUsuario", args ->
+                        new ArrayList<>(porEspacioYFecha.getOrDefault(clave((Long) args[0], (LocalDate) args[1]), List.of())),
+                "findByEspacioIdAndFechaBetweenAndActivoTrue", args -> {
+                    List<Reserva> encontradas = new ArrayList<>();
+                    for (LocalDate f = (LocalDate) args[1]; !f.isAfter((LocalDate) args[2]); f = f.plusDays(1)) {
+                        porEspacioYFecha.getOrDefault(clave((Long) args[0], f), List.of()).stream()
+                                .filter(r -> Boolean.TRUE.equals(r.getActivo()))
+                                .forEach(encontradas::add);
+                    }
+                    return encontradas;
+                }));
+    }
+
+    public HorarioRepository horarioRepository() {
+        return Fakes.crear(HorarioRepository.class, Map.of(
+                "findAll", args -> new ArrayList<>(horarios),
+                "findByActivoTrue", args -> new ArrayList<>(horarios)));
+    }
+
+    private List<Reserva> delUsuario(Long usuarioId) {
+        return porUsuario.getOrDefault(usuarioId, List.of());
+    }
+
+    private static String clave(Long espacioId, LocalDate fecha) {
+        return espacioId + ":" + fecha;
+    }
+
+    private static EstadoReserva estadoAleatorio(Random aleatorio) {
+        int n = aleatorio.nextInt(10);
+        if (n < 2) return EstadoReserva.PENDIENTE;
+        if (n < 7) return EstadoReserva.ACTIVA;
+        if (n < 8) return EstadoReserva.CANCELADA;
+        return EstadoReserva.COMPLETADA;
+    }
+}
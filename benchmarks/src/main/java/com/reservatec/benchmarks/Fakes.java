@@ -0,0 +1,32 @@
+package com.reservatec.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Crea implementaciones en memoria de interfaces (repositorios, cliente de Redis) a partir de un mapa
+ * nombre de método → implementación. Los métodos no simulados fallan, para que un benchmark no mida
+ * por accidente un camino que no preparó.
+ */
+public final class Fakes {
+
+    private Fakes() {
+    }
+
+    public static <T> T crear(Class<T> tipo, Map<String, Function<Object[], Object>> metodos) {
+        return tipo.cast(Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[]{tipo}, (proxy, metodo, args) -> {
+            Function<Object[], Object> implementacion = metodos.get(metodo.getName());
+            if (implementacion != null) {
+                return implementacion.apply(args != null ? args : new Object[0]);
+            }
+            return switch (metodo.getName()) {
+                case "toString" -> "Fake" + tipo.getSimpleName();
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                default -> throw new UnsupportedOperationException(
+                        tipo.getSimpleName() + "." + metodo.getName() + " no está simulado");
+            };
+        }));
+    }
+}
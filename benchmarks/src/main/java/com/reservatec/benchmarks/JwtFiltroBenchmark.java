@@ -0,0 +1,126 @@
+package com.reservatec.benchmarks;
+
+import com.reservatec.entity.Usuario;
+import com.reservatec.util.CustomUserDetails;
+import com.reservatec.util.JwtFilter;
+import com.reservatec.util.JwtUtil;
+import com.reservatec.util.JwtVerificador;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.lang.NonNull;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo por petición de la autenticación JWT: {@code antes} reproduce el filtro original, que construía
+ * un parser y verificaba la firma HMAC en cada petición; {@code despues} usa {@link JwtFilter} con
+ * {@link JwtVerificador}, que reutiliza el parser y recuerda los tokens ya verificados.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtFiltroBenchmark {
+
+    private static final String SECRETO = "clave-de-benchmark-de-al-menos-32-bytes!!";
+    private static final FilterChain CADENA = (request, response) -> { };
+
+    private OncePerRequestFilter filtroAntes;
+    private JwtFilter filtroDespues;
+    private JwtVerificador verificador;
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void preparar() {
+        jwtUtil = new JwtUtil(SECRETO, 3_600_000);
+        verificador = new JwtVerificador(jwtUtil, new SimpleMeterRegistry(), 10_000);
+        filtroAntes = new FiltroSinCache(jwtUtil);
+        filtroDespues = new JwtFilter(verificador);
+
+        Usuario usuario = new Usuario();
+        usuario.setId(42L);
+        usuario.setEmail("alumno@tecsup.edu.pe");
+        usuario.setName("Alumno de prueba");
+        usuario.setCode("A0042");
+        usuario.setRol("USER");
+        usuario.setCarrera("Diseño y Desarrollo de Software");
+        token = jwtUtil.generarToken(usuario);
+    }
+
+    @Benchmark
+    public Object verificarSinCache() {
+        return Jwts.parserBuilder().setSigningKey(jwtUtil.getKey()).build().parseClaimsJws(token).getBody();
+    }
+
+    @Benchmark
+    public Object verificarConCache() {
+        return verificador.verificar(token);
+    }
+
+    @Benchmark
+    public Object filtroAntes() throws Exception {
+        return filtrar(filtroAntes);
+    }
+
+    @Benchmark
+    public Object filtroDespues() throws Exception {
+        return filtrar(filtroDespues);
+    }
+
+    private Object filtrar(OncePerRequestFilter filtro) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/reservas/cronometro");
+        request.addHeader("Authorization", "Bearer " + token);
+        try {
+            filtro.doFilter(request, new MockHttpServletResponse(), CADENA);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    /**
+     * Lógica de JwtFilter antes de la caché: un parser nuevo y una verificación de firma por petición.
+     */
+    static final class FiltroSinCache extends OncePerRequestFilter {
+
+        private final JwtUtil jwtUtil;
+
+        FiltroSinCache(JwtUtil jwtUtil) {
+            this.jwtUtil = jwtUtil;
+        }
+
+        @Override
+        protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                        @NonNull HttpServletResponse response,
+                                        @NonNull FilterChain filterChain) throws ServletException, IOException {
+            String authHeader = request.getHeader("Authorization");
+            if (authHeader != null && authHeader.startsWith("Bearer ")) {
+                Claims claims = Jwts.parserBuilder()
+                        .setSigningKey(jwtUtil.getKey())
+                        .build()
+                        .parseClaimsJws(authHeader.substring(7))
+                        .getBody();
+                CustomUserDetails userDetails = new CustomUserDetails(
+                        claims.get("id", Long.class), claims.getSubject(), claims.get("rol", String.class));
+                SecurityContextHolder.getContext().setAuthentication(
+                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+            }
+            filterChain.doFilter(request, response);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.reservatec.benchmarks;
+
+import org.redisson.api.RBucket;
+import org.redisson.api.RBuckets;
+import org.redisson.api.RedissonClient;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link RedissonClient} en memoria con los buckets que usan las retenciones de reservas
+ * ({@code getBucket} y el MGET de {@code getBuckets().get}).
+ */
+public final class RedisEnMemoria {
+
+    private final Map<String, Object> valores = new ConcurrentHashMap<>();
+    private final RedissonClient cliente;
+
+    public RedisEnMemoria() {
+        RBuckets buckets = Fakes.crear(RBuckets.class, Map.of("get", args -> {
+            Map<String, Object> encontrados = new HashMap<>();
+            for (String clave : (String[]) args[0]) {
+                Object valor = valores.get(clave);
+                if (valor != null) encontrados.put(clave, valor);
+            }
+            return encontrados;
+        }));
+        cliente = Fakes.crear(RedissonClient.class, Map.of(
+                "getBuckets", args -> buckets,
+                "getBucket", args -> bucket((String) args[0])));
+    }
+
+    public RedissonClient cliente() {
+        return cliente;
+    }
+
+    public void poner(String clave, Object valor) {
+        valores.put(clave, valor);
+    }
+
+    private RBucket<Object> bucket(String clave) {
+        @SuppressWarnings("unchecked")
+        RBucket<Object> bucket = Fakes.crear(RBucket.class, Map.of(
+                "get", args -> valores.get(clave),
+                "isExists", args -> valores.containsKey(clave),
+                "set", args -> valores.put(clave, args[0]),
+                "delete", args -> valores.remove(clave) != null));
+        return bucket;
+    }
+}
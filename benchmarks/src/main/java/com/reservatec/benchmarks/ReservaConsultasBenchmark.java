@@ -0,0 +1,99 @@
+package com.reservatec.benchmarks;
+
+import com.reservatec.cache.BloqueoIndex;
+import com.reservatec.cache.BusquedaIndex;
+import com.reservatec.cache.DisponibilidadCache;
+import com.reservatec.cache.FechasCompletasIndex;
+import com.reservatec.cache.ReservaUsuarioCache;
+import com.reservatec.client.RetencionClient;
+import com.reservatec.config.MetricasReservas;
+import com.reservatec.entity.Usuario;
+import com.reservatec.mapper.ReservaMapper;
+import com.reservatec.repository.EspacioRepository;
+import com.reservatec.repository.HorarioRepository;
+import com.reservatec.repository.ReservaExpiradaLogRepository;
+import com.reservatec.repository.ReservaRepository;
+import com.reservatec.repository.ReservaSlotRepository;
+import com.reservatec.scheduler.DespachadorNotificaciones;
+import com.reservatec.service.ReservaService;
+import com.reservatec.service.impl.ReservaServiceImpl;
+import com.reservatec.service.impl.TiposDelPaquete;
+import org.openjdk.jmh.annotations.*;
+import org.redisson.api.RedissonClient;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consultas frecuentes de {@link ReservaServiceImpl} sobre repositorios y Redis en memoria:
+ * {@code obtenerTiempoCronometro} y {@code obtenerHorariosOcupados}.
+ * Con {@code cache=caliente} los índices en memoria responden sin recargar; con {@code cache=frio}
+ * su vigencia es cero y cada llamada incluye la carga desde los repositorios y el MGET de retenciones.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReservaConsultasBenchmark {
+
+    @Param({"caliente", "frio"})
+    public String cache;
+
+    private ReservaService reservaService;
+    private List<Usuario> usuarios;
+    private Long usuarioConReserva;
+    private LocalDate manana;
+    private int siguiente;
+
+    @Setup
+    public void preparar() {
+        DatosEnMemoria datos = new DatosEnMemoria();
+        ReservaRepository reservaRepository = datos.reservaRepository();
+        HorarioRepository horarioRepository = datos.horarioRepository();
+        RetencionClient retencionClient = new RetencionClient(datos.redis.cliente());
+
+        long vigencia = "caliente".equals(cache) ? 300 : 0;
+        // Solo se registra lo que usan las consultas medidas; el resto se declara sin usar
+        Colaboradores colaboradores = new Colaboradores()
+                .con(ReservaRepository.class, reservaRepository)
+                .con(HorarioRepository.class, horarioRepository)
+                .con(RedissonClient.class, datos.redis.cliente())
+                .con(RetencionClient.class, retencionClient)
+                .con(ReservaMapper.class, new ReservaMapper())
+                .sinUsar(EspacioRepository.class, ReservaExpiradaLogRepository.class, ReservaSlotRepository.class,
+                        DespachadorNotificaciones.class, BloqueoIndex.class, FechasCompletasIndex.class,
+                        BusquedaIndex.class, ApplicationEventPublisher.class, MetricasReservas.class,
+                        TiposDelPaquete.EVALUADOR_ELEGIBILIDAD);
+
+        DisponibilidadCache disponibilidadCache = colaboradores.crear(DisponibilidadCache.class);
+        ReflectionTestUtils.setField(disponibilidadCache, "vigenciaSegundos", vigencia);
+        ReservaUsuarioCache reservaUsuarioCache = colaboradores.crear(ReservaUsuarioCache.class);
+        ReflectionTestUtils.setField(reservaUsuarioCache, "vigenciaSegundos", vigencia);
+
+        reservaService = colaboradores
+                .con(DisponibilidadCache.class, disponibilidadCache)
+                .con(ReservaUsuarioCache.class, reservaUsuarioCache)
+                .crear(ReservaServiceImpl.class);
+
+        usuarios = datos.usuarios;
+        usuarioConReserva = datos.usuarioConReservaActiva();
+        manana = datos.hoy.plusDays(1);
+    }
+
+    @Benchmark
+    public Map<String, Object> cronometro() {
+        return reservaService.obtenerTiempoCronometro(usuarioConReserva);
+    }
+
+    @Benchmark
+    public List<Long> horariosOcupados() {
+        siguiente = (siguiente + 1) % usuarios.size();
+        return reservaService.obtenerHorariosOcupados(1L, manana, usuarios.get(siguiente).getId());
+    }
+}
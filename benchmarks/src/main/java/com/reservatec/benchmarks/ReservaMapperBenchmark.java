@@ -0,0 +1,41 @@
+package com.reservatec.benchmarks;
+
+import com.reservatec.dto.ReservaResponseDTO;
+import com.reservatec.entity.Reserva;
+import com.reservatec.mapper.ReservaMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de {@link ReservaMapper#toDTO} para una reserva y para el listado completo de {@link DatosEnMemoria}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReservaMapperBenchmark {
+
+    private final ReservaMapper mapper = new ReservaMapper();
+    private List<Reserva> reservas;
+    private int siguiente;
+
+    @Setup
+    public void preparar() {
+        reservas = new DatosEnMemoria().reservas;
+    }
+
+    @Benchmark
+    public ReservaResponseDTO unaReserva() {
+        siguiente = (siguiente + 1) % reservas.size();
+        return mapper.toDTO(reservas.get(siguiente));
+    }
+
+    @Benchmark
+    public List<ReservaResponseDTO> listado() {
+        return reservas.stream().map(mapper::toDTO).toList();
+    }
+}
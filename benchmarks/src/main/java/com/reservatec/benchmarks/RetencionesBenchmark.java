@@ -0,0 +1,91 @@
+package com.reservatec.benchmarks;
+
+import com.reservatec.client.RetencionClient;
+import org.openjdk.jmh.annotations.*;
+import org.redisson.Redisson;
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consulta de las retenciones de un día contra un Redis real en la misma máquina: {@code porClave} reproduce
+ * el recorrido original, un {@code isExists()} y un {@code get()} por horario (dos viajes por clave);
+ * {@code mget} usa {@link RetencionClient}, un único MGET para todas las claves. Con {@code horarios}
+ * se ve cómo crece la diferencia con la cantidad de horarios consultados (por ejemplo, una grilla de varios días).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RetencionesBenchmark {
+
+    @Param({"7", "14", "56", "224"})
+    public int horarios;
+
+    private RedisServer servidor;
+    private RedissonClient cliente;
+    private RetencionClient retencionClient;
+    private List<String> claves;
+
+    @Setup
+    public void preparar() throws IOException {
+        int puerto;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            puerto = socket.getLocalPort();
+        }
+        servidor = new RedisServer(puerto);
+        servidor.start();
+
+        Config config = new Config();
+        config.useSingleServer().setAddress("redis://127.0.0.1:" + puerto);
+        cliente = Redisson.create(config);
+        retencionClient = new RetencionClient(cliente);
+
+        // La mitad de los horarios está retenida, como en una apertura de reservas concurrida
+        LocalDate fecha = LocalDate.now().plusDays(1);
+        claves = new ArrayList<>(horarios);
+        for (long horarioId = 1; horarioId <= horarios; horarioId++) {
+            String clave = RetencionClient.clave(1L, horarioId, fecha);
+            claves.add(clave);
+            if (horarioId % 2 == 0) {
+                cliente.<String>getBucket(clave).set(String.valueOf(horarioId), Duration.ofHours(1));
+            }
+        }
+    }
+
+    @TearDown
+    public void detener() throws IOException {
+        cliente.shutdown();
+        servidor.stop();
+    }
+
+    @Benchmark
+    public Map<String, String> porClave() {
+        Map<String, String> retenciones = new HashMap<>();
+        for (String clave : claves) {
+            RBucket<String> bucket = cliente.getBucket(clave);
+            if (bucket.isExists()) {
+                retenciones.put(clave, bucket.get());
+            }
+        }
+        return retenciones;
+    }
+
+    @Benchmark
+    public Map<String, String> mget() {
+        return retencionClient.obtener(claves);
+    }
+}
@@ -0,0 +1,50 @@
+package com.reservatec.service.impl;
+
+import com.reservatec.benchmarks.DatosEnMemoria;
+import com.reservatec.entity.Horario;
+import com.reservatec.entity.Usuario;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluación de las reglas de {@code crearReservaTemporal} en {@link EvaluadorElegibilidad}: las dos
+ * consultas (aquí en memoria) y las reglas de ocupación, espera y contigüidad por carrera.
+ * Está en el paquete del evaluador porque este no es público.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ElegibilidadBenchmark {
+
+    private EvaluadorElegibilidad evaluador;
+    private List<Usuario> usuarios;
+    private List<Horario> horarios;
+    private LocalDate manana;
+    private LocalDateTime ahora;
+    private int siguiente;
+
+    @Setup
+    public void preparar() {
+        DatosEnMemoria datos = new DatosEnMemoria();
+        evaluador = new EvaluadorElegibilidad(datos.reservaRepository());
+        usuarios = datos.usuarios;
+        horarios = datos.horarios;
+        manana = datos.hoy.plusDays(1);
+        ahora = datos.hoy.atTime(10, 0);
+    }
+
+    @Benchmark
+    public EvaluadorElegibilidad.Elegibilidad evaluar() {
+        siguiente++;
+        Usuario usuario = usuarios.get(siguiente % usuarios.size());
+        Horario horario = horarios.get(siguiente % horarios.size());
+        return evaluador.evaluar(usuario, 1L, horario, manana, ahora);
+    }
+}
@@ -0,0 +1,12 @@
+package com.reservatec.service.impl;
+
+/**
+ * Tipos no públicos de este paquete, para declararlos en {@code Colaboradores} desde los benchmarks de otros paquetes.
+ */
+public final class TiposDelPaquete {
+
+    public static final Class<?> EVALUADOR_ELEGIBILIDAD = EvaluadorElegibilidad.class;
+
+    private TiposDelPaquete() {
+    }
+}
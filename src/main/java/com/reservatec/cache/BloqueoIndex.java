@@ -0,0 +1,186 @@
+package com.reservatec.cache;
+
+import com.reservatec.config.MetricasReservas;
+import com.reservatec.entity.FechaBloqueada;
+import com.reservatec.entity.enums.TipoBloqueo;
+import com.reservatec.repository.FechaBloqueadaRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Índice en memoria de las fechas bloqueadas activas y no ignoradas.
+ * Agrupa los bloqueos por alcance (global, espacio, horario o espacio + horario) y,
+ * dentro de cada alcance, los ordena en un arreglo de intervalos con el máximo acumulado
+ * de la fecha de fin, de modo que saber si una fecha está bloqueada no toca la base de datos.
+ * Se recarga completo tras cada cambio de {@code FechaBloqueada} y periódicamente
+ * para recoger los cambios hechos en otros nodos.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BloqueoIndex {
+
+    private final FechaBloqueadaRepository fechaBloqueadaRepository;
+    private final MetricasReservas metricas;
+
+    private volatile Map<Alcance, Intervalos> porAlcance;
+    private volatile List<Bloqueo> ordenados;
+
+    /**
+     * Vuelve a leer todos los bloqueos vigentes y reemplaza el índice de forma atómica.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${reservas.bloqueos.recarga-ms}", fixedDelayString = "${reservas.bloqueos.recarga-ms}")
+    public synchronized void recargar() {
+        Map<Alcance, List<Bloqueo>> agrupados = new HashMap<>();
+        List<Bloqueo> todos = new ArrayList<>();
+
+        for (FechaBloqueada fb : fechaBloqueadaRepository.findAllByOrderByFechaInicioAsc()) {
+            if (!Boolean.TRUE.equals(fb.getActivo()) || Boolean.TRUE.equals(fb.getIgnorar())) continue;
+
+            Alcance alcance = Alcance.de(fb);
+            if (alcance == null) continue;
+
+            Bloqueo bloqueo = new Bloqueo(fb.getId(), fb.getFechaInicio(), fb.getFechaFin(), fb.getMotivo(),
+                    fb.getTipoBloqueo(), alcance.espacioId(), alcance.horarioId());
+            agrupados.computeIfAbsent(alcance, k -> new ArrayList<>()).add(bloqueo);
+            todos.add(bloqueo);
+        }
+
+        Map<Alcance, Intervalos> indice = new HashMap<>();
+        agrupados.forEach((alcance, lista) -> indice.put(alcance, new Intervalos(lista)));
+
+        this.porAlcance = indice;
+        this.ordenados = List.copyOf(todos);
+        metricas.pasada("bloqueos-recargar", todos.size());
+        log.info("Índice de fechas bloqueadas recargado: {} bloqueos vigentes", todos.size());
+    }
+
+    /**
+     * Devuelve el bloqueo que impide reservar el espacio y horario en la fecha indicada, si existe.
+     * Se revisan los alcances del más general al más específico.
+     */
+    public Optional<Bloqueo> buscar(Long espacioId, Long horarioId, LocalDate fecha) {
+        Map<Alcance, Intervalos> indice = indice();
+        for (Alcance alcance : List.of(
+                new Alcance(null, null),
+                new Alcance(espacioId, null),
+                new Alcance(null, horarioId),
+                new Alcance(espacioId, horarioId))) {
+            Intervalos intervalos = indice.get(alcance);
+            if (intervalos == null) continue;
+
+            Bloqueo bloqueo = intervalos.buscar(fecha);
+            if (bloqueo != null) return Optional.of(bloqueo);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Lista los bloqueos vigentes que se cruzan con el rango indicado (ambos extremos incluidos),
+     * ordenados por fecha de inicio.
+     */
+    public List<Bloqueo> listarEntre(LocalDate desde, LocalDate hasta) {
+        if (ordenados == null) indice();
+        return ordenados.stream()
+                .filter(b -> !b.fechaInicio().isAfter(hasta) && !b.fechaFin().isBefore(desde))
+                .toList();
+    }
+
+    private Map<Alcance, Intervalos> indice() {
+        if (porAlcance == null) {
+            recargar();
+        }
+        return porAlcance;
+    }
+
+    /**
+     * Bloqueo vigente tal como lo conserva el índice.
+     * {@code espacioId} u {@code horarioId} nulos indican que aplica a todos.
+     */
+    public record Bloqueo(
+            Long id,
+            LocalDate fechaInicio,
+            LocalDate fechaFin,
+            String motivo,
+            TipoBloqueo tipoBloqueo,
+            Long espacioId,
+            Long horarioId
+    ) {
+    }
+
+    /**
+     * Alcance de un bloqueo; un ID nulo significa "todos".
+     */
+    private record Alcance(Long espacioId, Long horarioId) {
+
+        /**
+         * Obtiene el alcance de una fila, o null si le falta el espacio u horario que exige.
+         */
+        static Alcance de(FechaBloqueada fb) {
+            Long espacioId = null;
+            Long horarioId = null;
+
+            if (!Boolean.TRUE.equals(fb.getAplicaATodosLosEspacios())) {
+                if (fb.getEspacio() == null) return null;
+                espacioId = fb.getEspacio().getId();
+            }
+            if (!Boolean.TRUE.equals(fb.getAplicaATodosLosHorarios())) {
+                if (fb.getHorario() == null) return null;
+                horarioId = fb.getHorario().getId();
+            }
+            return new Alcance(espacioId, horarioId);
+        }
+    }
+
+    /**
+     * Intervalos de un mismo alcance ordenados por fecha de inicio, con el máximo acumulado
+     * de la fecha de fin para cortar la búsqueda en cuanto ningún intervalo anterior pueda cubrir la fecha.
+     */
+    private static final class Intervalos {
+
+        private final Bloqueo[] bloqueos;
+        private final LocalDate[] finMaximo;
+
+        Intervalos(List<Bloqueo> lista) {
+            this.bloqueos = lista.stream()
+                    .sorted(Comparator.comparing(Bloqueo::fechaInicio))
+                    .toArray(Bloqueo[]::new);
+            this.finMaximo = new LocalDate[bloqueos.length];
+
+            LocalDate maximo = LocalDate.MIN;
+            for (int i = 0; i < bloqueos.length; i++) {
+                if (bloqueos[i].fechaFin().isAfter(maximo)) maximo = bloqueos[i].fechaFin();
+                finMaximo[i] = maximo;
+            }
+        }
+
+        Bloqueo buscar(LocalDate fecha) {
+            // Último intervalo que empieza en o antes de la fecha
+            int bajo = 0;
+            int alto = bloqueos.length - 1;
+            int ultimo = -1;
+            while (bajo <= alto) {
+                int medio = (bajo + alto) >>> 1;
+                if (!bloqueos[medio].fechaInicio().isAfter(fecha)) {
+                    ultimo = medio;
+                    bajo = medio + 1;
+                } else {
+                    alto = medio - 1;
+                }
+            }
+
+            for (int i = ultimo; i >= 0 && !finMaximo[i].isBefore(fecha); i--) {
+                if (!bloqueos[i].fechaFin().isBefore(fecha)) return bloqueos[i];
+            }
+            return null;
+        }
+    }
+}
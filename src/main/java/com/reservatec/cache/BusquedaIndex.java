@@ -0,0 +1,196 @@
+package com.reservatec.cache;
+
+import com.reservatec.config.MetricasReservas;
+import com.reservatec.entity.Espacio;
+import com.reservatec.entity.Usuario;
+import com.reservatec.event.ReservaCambiadaEvent;
+import com.reservatec.repository.EspacioRepository;
+import com.reservatec.repository.ReservaRepository;
+import com.reservatec.repository.UsuarioRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Índice de búsqueda en memoria para usuarios y reservas.
+ * Los usuarios se indexan por nombre, código y correo; las reservas por su código y, a través
+ * de su usuario y su espacio, por nombre y código de usuario y nombre del espacio.
+ * Así, renombrar un usuario o un espacio no obliga a reindexar sus reservas.
+ * Se mantiene con cada escritura y se reconstruye periódicamente. Las escrituras que llegan mientras se reconstruye
+ * se anotan en un diario y se vuelven a aplicar sobre el índice nuevo antes de reemplazar al actual.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BusquedaIndex {
+
+    /** Rango a partir del cual la coincidencia de un usuario está en el correo, que no cuenta para reservas. */
+    private static final int RANGO_CORREO = 6;
+
+    private final UsuarioRepository usuarioRepository;
+    private final EspacioRepository espacioRepository;
+    private final ReservaRepository reservaRepository;
+    private final MetricasReservas metricas;
+
+    private volatile Instantanea actual = new Instantanea();
+
+    /** Protege el cambio de instantánea y el diario; las escrituras lo toman para no perderse en el reemplazo. */
+    private final Object escrituras = new Object();
+    /** Escrituras recibidas durante una reconstrucción en curso, o null si no hay ninguna. */
+    private List<Consumer<Instantanea>> diario;
+
+    /**
+     * Reconstruye el índice completo y lo reemplaza de forma atómica, con las escrituras recibidas mientras tanto.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${reservas.busqueda.reconstruir-ms}", fixedDelayString = "${reservas.busqueda.reconstruir-ms}")
+    public synchronized void reconstruir() {
+        synchronized (escrituras) {
+            diario = new ArrayList<>();
+        }
+
+        Instantanea nueva = new Instantanea();
+        try {
+            usuarioRepository.findAll().forEach(nueva::indexarUsuario);
+            espacioRepository.findAll().forEach(nueva::indexarEspacio);
+            for (Object[] fila : reservaRepository.listarClavesBusqueda()) {
+                nueva.indexarReserva((Long) fila[0], (String) fila[1], (Long) fila[2], (Long) fila[3]);
+            }
+        } catch (RuntimeException e) {
+            synchronized (escrituras) {
+                diario = null;
+            }
+            throw e;
+        }
+
+        synchronized (escrituras) {
+            // Se aplican después de la carga, así prevalecen sobre lo leído antes de su commit
+            diario.forEach(escritura -> escritura.accept(nueva));
+            diario = null;
+            actual = nueva;
+        }
+        metricas.pasada("busqueda-reconstruir", nueva.reservas.size());
+        log.info("Índice de búsqueda reconstruido: {} reservas", nueva.reservas.size());
+    }
+
+    /**
+     * Indica si la consulta es lo bastante larga para resolverse con el índice.
+     */
+    public boolean admite(String consulta) {
+        return IndiceTrigramas.admite(consulta);
+    }
+
+    public void indexarUsuario(Usuario usuario) {
+        escribir(indice -> indice.indexarUsuario(usuario));
+    }
+
+    public void indexarEspacio(Espacio espacio) {
+        escribir(indice -> indice.indexarEspacio(espacio));
+    }
+
+    /**
+     * Registra las reservas nuevas y quita las borradas físicamente; su usuario, espacio y código no cambian
+     * después de creadas. Las inactivadas se conservan, igual que en la reconstrucción.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alCambiarReserva(ReservaCambiadaEvent evento) {
+        if (evento.eliminada()) {
+            escribir(indice -> indice.quitarReserva(evento.reservaId(), evento.usuarioId(), evento.espacioId()));
+            return;
+        }
+        escribir(indice -> indice.indexarReserva(evento.reservaId(), evento.codigoReserva(), evento.usuarioId(), evento.espacioId()));
+    }
+
+    /**
+     * Aplica la escritura al índice actual y, si hay una reconstrucción en curso, la anota para el índice nuevo.
+     */
+    private void escribir(Consumer<Instantanea> escritura) {
+        synchronized (escrituras) {
+            escritura.accept(actual);
+            if (diario != null) diario.add(escritura);
+        }
+    }
+
+    /**
+     * IDs de usuarios que coinciden con la consulta, del mejor al peor rango.
+     */
+    public List<Long> buscarUsuarios(String consulta) {
+        return ordenar(actual.usuarios.coincidencias(consulta));
+    }
+
+    /**
+     * IDs de reservas que coinciden con la consulta, de la mejor coincidencia a la peor
+     * (código de reserva, luego usuario, luego espacio) y, a igual rango, de la más reciente a la más antigua.
+     */
+    public List<Long> buscarReservas(String consulta) {
+        Instantanea indice = actual;
+        Map<Long, Integer> rangos = new HashMap<>(indice.codigos.coincidencias(consulta));
+
+        indice.usuarios.coincidencias(consulta).forEach((usuarioId, rango) -> {
+            if (rango < RANGO_CORREO) {
+                indice.reservasPorUsuario.getOrDefault(usuarioId, Set.of())
+                        .forEach(id -> rangos.merge(id, 3 + rango, Math::min));
+            }
+        });
+        indice.espacios.coincidencias(consulta).forEach((espacioId, rango) ->
+                indice.reservasPorEspacio.getOrDefault(espacioId, Set.of())
+                        .forEach(id -> rangos.merge(id, 9 + rango, Math::min)));
+
+        return ordenar(rangos);
+    }
+
+    private static List<Long> ordenar(Map<Long, Integer> rangos) {
+        List<Long> ids = new ArrayList<>(rangos.keySet());
+        ids.sort(Comparator.<Long>comparingInt(rangos::get).thenComparing(Comparator.reverseOrder()));
+        return ids;
+    }
+
+    /**
+     * Estado completo del índice; se reemplaza entero en cada reconstrucción.
+     */
+    private static final class Instantanea {
+
+        private final IndiceTrigramas<Long> usuarios = new IndiceTrigramas<>();
+        private final IndiceTrigramas<Long> espacios = new IndiceTrigramas<>();
+        private final IndiceTrigramas<Long> codigos = new IndiceTrigramas<>();
+        private final Set<Long> reservas = ConcurrentHashMap.newKeySet();
+        private final Map<Long, Set<Long>> reservasPorUsuario = new ConcurrentHashMap<>();
+        private final Map<Long, Set<Long>> reservasPorEspacio = new ConcurrentHashMap<>();
+
+        void indexarUsuario(Usuario u) {
+            usuarios.indexar(u.getId(), Arrays.asList(u.getName(), u.getCode(), u.getEmail()));
+        }
+
+        void indexarEspacio(Espacio e) {
+            espacios.indexar(e.getId(), List.of(Objects.toString(e.getNombre(), "")));
+        }
+
+        void indexarReserva(Long reservaId, String codigoReserva, Long usuarioId, Long espacioId) {
+            if (codigoReserva == null || !reservas.add(reservaId)) return;
+
+            codigos.indexar(reservaId, List.of(codigoReserva));
+            reservasPorUsuario.computeIfAbsent(usuarioId, k -> ConcurrentHashMap.newKeySet()).add(reservaId);
+            reservasPorEspacio.computeIfAbsent(espacioId, k -> ConcurrentHashMap.newKeySet()).add(reservaId);
+        }
+
+        void quitarReserva(Long reservaId, Long usuarioId, Long espacioId) {
+            if (!reservas.remove(reservaId)) return;
+
+            codigos.eliminar(reservaId);
+            quitar(reservasPorUsuario, usuarioId, reservaId);
+            quitar(reservasPorEspacio, espacioId, reservaId);
+        }
+
+        private static void quitar(Map<Long, Set<Long>> porClave, Long clave, Long reservaId) {
+            porClave.computeIfPresent(clave, (k, ids) -> ids.remove(reservaId) && ids.isEmpty() ? null : ids);
+        }
+    }
+}
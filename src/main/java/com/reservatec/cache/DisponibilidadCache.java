@@ -0,0 +1,357 @@
+package com.reservatec.cache;
+
+import com.reservatec.client.RetencionClient;
+import com.reservatec.dto.DisponibilidadDeltaDTO;
+import com.reservatec.entity.Horario;
+import com.reservatec.entity.Reserva;
+import com.reservatec.entity.enums.EstadoReserva;
+import com.reservatec.event.ReservaCambiadaEvent;
+import com.reservatec.repository.HorarioRepository;
+import com.reservatec.repository.ReservaRepository;
+import com.reservatec.scheduler.DespachadorNotificaciones;
+import com.reservatec.util.TransaccionUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Índice en memoria de horarios ocupados por (espacio, fecha).
+ * Cada día se carga una sola vez desde la base de datos y Redis, y luego se mantiene
+ * actualizado de forma incremental con los eventos {@link ReservaCambiadaEvent}.
+ * La vigencia configurable acota la desincronización cuando hay varios nodos.
+ * Cada cambio se publica además como delta en {@code /topic/disponibilidad/{espacioId}/{fecha}}
+ * para que quienes ven ese día actualicen su grilla sin volver a consultar.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DisponibilidadCache {
+
+    private final ReservaRepository reservaRepository;
+    private final HorarioRepository horarioRepository;
+    private final RetencionClient retencionClient;
+    private final DespachadorNotificaciones despachadorNotificaciones;
+
+    private static final String DESTINO = "/topic/disponibilidad/";
+
+    private final ConcurrentMap<ClaveDia, Dia> dias = new ConcurrentHashMap<>();
+
+    @Value("${reservas.disponibilidad.vigencia-segundos:30}")
+    private long vigenciaSegundos;
+
+    /**
+     * Devuelve los IDs de horarios ocupados para el usuario indicado.
+     * Solo accede a la base de datos y a Redis si el día no está cargado o ya venció.
+     *
+     * @param espacioId ID del espacio
+     * @param fecha     fecha consultada
+     * @param usuarioId usuario que consulta (sus propias reservas sin confirmar no lo bloquean)
+     * @return lista de IDs de horarios ocupados
+     */
+    public List<Long> obtenerOcupados(Long espacioId, LocalDate fecha, Long usuarioId) {
+        ClaveDia clave = new ClaveDia(espacioId, fecha);
+        Instant ahora = Instant.now();
+
+        Dia dia = dias.get(clave);
+        if (dia == null || dia.vencido(ahora, vigenciaSegundos)) {
+            dia = dias.compute(clave, (k, actual) ->
+                    actual != null && !actual.vencido(ahora, vigenciaSegundos) ? actual : cargar(k));
+        }
+        return dia.ocupadosPara(usuarioId);
+    }
+
+    /**
+     * Devuelve, para cada día del rango, el estado de los horarios no libres tal como los ve el usuario.
+     * Los días que falten o hayan vencido se cargan juntos con una sola consulta y un solo MGET.
+     *
+     * @param espacioId ID del espacio
+     * @param desde     primer día del rango (inclusive)
+     * @param hasta     último día del rango (inclusive)
+     * @param usuarioId usuario que consulta
+     * @return estados por día y horario; los horarios libres no aparecen
+     */
+    public Map<LocalDate, Map<Long, Estado>> obtenerRango(Long espacioId, LocalDate desde, LocalDate hasta, Long usuarioId) {
+        Instant ahora = Instant.now();
+        Map<LocalDate, Dia> encontrados = new TreeMap<>();
+        List<LocalDate> faltantes = new ArrayList<>();
+
+        for (LocalDate fecha = desde; !fecha.isAfter(hasta); fecha = fecha.plusDays(1)) {
+            Dia dia = dias.get(new ClaveDia(espacioId, fecha));
+            if (dia == null || dia.vencido(ahora, vigenciaSegundos)) {
+                faltantes.add(fecha);
+            } else {
+                encontrados.put(fecha, dia);
+            }
+        }
+
+        if (!faltantes.isEmpty()) {
+            cargar(espacioId, faltantes).forEach((fecha, nuevo) -> encontrados.put(fecha,
+                    dias.compute(new ClaveDia(espacioId, fecha), (k, actual) ->
+                            actual != null && !actual.vencido(ahora, vigenciaSegundos) ? actual : nuevo)));
+        }
+
+        Map<LocalDate, Map<Long, Estado>> resultado = new TreeMap<>();
+        encontrados.forEach((fecha, dia) -> resultado.put(fecha, dia.estadosPara(usuarioId)));
+        return resultado;
+    }
+
+    /**
+     * Aplica el cambio de una reserva sobre el día correspondiente, si está cargado, y publica el nuevo
+     * estado del horario. Se ejecuta después del commit para no reflejar cambios que luego se revierten.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alCambiarReserva(ReservaCambiadaEvent evento) {
+        Dia dia = dias.get(new ClaveDia(evento.espacioId(), evento.fecha()));
+        Estado estado;
+        if (dia != null) {
+            dia.aplicar(evento);
+            estado = dia.estadoPublico(evento.horarioId());
+        } else {
+            // Sin el día cargado basta con la reserva: uk_reservas_slot_vivo impide otra viva en el mismo horario
+            Bloqueo bloqueo = Bloqueo.de(evento);
+            estado = bloqueo == Bloqueo.NINGUNO ? null
+                    : bloqueo == Bloqueo.AJENO && evento.estado() == EstadoReserva.PENDIENTE ? Estado.RETENIDO
+                    : Estado.RESERVADO;
+        }
+        publicar(evento.espacioId(), evento.fecha(), evento.horarioId(), estado);
+    }
+
+    /**
+     * Descarta la retención de un horario cuya clave expiró en Redis y publica su estado.
+     * Se ejecuta tras el commit, después de aplicar la eliminación de la reserva PENDIENTE si la había.
+     */
+    public void alExpirarRetencion(Long espacioId, Long horarioId, LocalDate fecha) {
+        TransaccionUtil.despuesDelCommit(() -> {
+            Dia dia = dias.get(new ClaveDia(espacioId, fecha));
+            if (dia == null) {
+                publicar(espacioId, fecha, horarioId, null);
+                return;
+            }
+            dia.liberarRetencion(horarioId);
+            publicar(espacioId, fecha, horarioId, dia.estadoPublico(horarioId));
+        });
+    }
+
+    private void publicar(Long espacioId, LocalDate fecha, Long horarioId, Estado estado) {
+        String codigo = estado == null ? "L" : estado == Estado.RETENIDO ? "R" : "O";
+        despachadorNotificaciones.encolar(DESTINO + espacioId + "/" + fecha, horarioId,
+                new DisponibilidadDeltaDTO(horarioId, codigo));
+    }
+
+    /**
+     * Descarta los días ya pasados para que el índice no crezca indefinidamente.
+     */
+    @Scheduled(cron = "0 5 0 * * *")
+    public void purgarDiasPasados() {
+        LocalDate hoy = LocalDate.now();
+        dias.keySet().removeIf(k -> k.fecha().isBefore(hoy));
+    }
+
+    private Dia cargar(ClaveDia clave) {
+        return cargar(clave.espacioId(), List.of(clave.fecha())).get(clave.fecha());
+    }
+
+    /**
+     * Carga varios días de un espacio con una consulta para las reservas y un MGET para las retenciones.
+     */
+    private Map<LocalDate, Dia> cargar(Long espacioId, List<LocalDate> fechas) {
+        Instant ahora = Instant.now();
+        Map<LocalDate, Dia> cargados = new HashMap<>();
+        fechas.forEach(f -> cargados.put(f, new Dia(ahora)));
+
+        LocalDate desde = Collections.min(fechas);
+        LocalDate hasta = Collections.max(fechas);
+        for (Reserva r : reservaRepository.findByEspacioIdAndFechaBetweenAndActivoTrue(espacioId, desde, hasta)) {
+            Dia dia = cargados.get(r.getFecha());
+            if (dia != null) {
+                dia.aplicar(ReservaCambiadaEvent.de(r));
+            }
+        }
+
+        // Retenciones temporales en Redis (reservas en proceso de confirmación), en un solo MGET
+        Map<String, Retencion> retencionPorClave = new HashMap<>();
+        List<Horario> horarios = horarioRepository.findAll();
+        for (LocalDate fecha : fechas) {
+            for (Horario h : horarios) {
+                retencionPorClave.put(RetencionClient.clave(espacioId, h.getId(), fecha), new Retencion(fecha, h.getId()));
+            }
+        }
+        retencionClient.obtener(retencionPorClave.keySet()).forEach((k, reservandoId) -> {
+            if (reservandoId != null) {
+                Retencion retencion = retencionPorClave.get(k);
+                cargados.get(retencion.fecha()).retener(retencion.horarioId(), Long.valueOf(reservandoId));
+            }
+        });
+
+        log.debug("Disponibilidad cargada para espacio {}: {} días desde {}", espacioId, fechas.size(), desde);
+        return cargados;
+    }
+
+    private record ClaveDia(Long espacioId, LocalDate fecha) {
+    }
+
+    private record Retencion(LocalDate fecha, Long horarioId) {
+    }
+
+    /**
+     * Estado de un horario ocupado, de menor a mayor prioridad.
+     * RETENIDO: otro usuario lo tiene en proceso de confirmación; RESERVADO: ya está tomado.
+     */
+    public enum Estado {
+        RETENIDO, RESERVADO
+    }
+
+    /**
+     * Cómo bloquea una reserva su horario: para todos o solo para los demás usuarios.
+     */
+    private enum Bloqueo {
+        NINGUNO, AJENO, TODOS;
+
+        static Bloqueo de(ReservaCambiadaEvent e) {
+            if (!e.vigente()) return NINGUNO;
+            boolean enUso = e.estado() == EstadoReserva.ACTIVA || e.estado() == EstadoReserva.CURSO;
+            if (enUso && e.asistenciaConfirmada()) return TODOS;
+            return switch (e.estado()) {
+                case PENDIENTE, ACTIVA, CURSO -> AJENO;
+                case CANCELADA -> e.asistenciaConfirmada() ? AJENO : NINGUNO;
+                default -> NINGUNO;
+            };
+        }
+    }
+
+    private record Ocupacion(Long horarioId, Long usuarioId, Bloqueo bloqueo, boolean pendiente) {
+    }
+
+    /**
+     * Estado de un (espacio, fecha). El bitmap {@code siempre} guarda los horarios ocupados
+     * para cualquier usuario; {@code duenos} guarda los que solo bloquean a terceros.
+     */
+    private static final class Dia {
+
+        private final Instant cargadoEn;
+        private final Map<Long, Ocupacion> reservas = new HashMap<>();
+        private final Map<Long, Long> retenciones = new HashMap<>();
+
+        private BitSet siempre = new BitSet();
+        private Map<Integer, Long> duenos = Map.of();
+
+        Dia(Instant cargadoEn) {
+            this.cargadoEn = cargadoEn;
+        }
+
+        boolean vencido(Instant ahora, long vigenciaSegundos) {
+            return Duration.between(cargadoEn, ahora).getSeconds() >= vigenciaSegundos;
+        }
+
+        synchronized void aplicar(ReservaCambiadaEvent e) {
+            Bloqueo bloqueo = Bloqueo.de(e);
+            if (bloqueo == Bloqueo.NINGUNO) {
+                reservas.remove(e.reservaId());
+            } else {
+                reservas.put(e.reservaId(), new Ocupacion(e.horarioId(), e.usuarioId(), bloqueo,
+                        e.estado() == EstadoReserva.PENDIENTE));
+            }
+
+            // La retención en Redis acompaña a la reserva PENDIENTE y se borra al salir de ese estado
+            if (e.vigente() && e.estado() == EstadoReserva.PENDIENTE) {
+                retenciones.put(e.horarioId(), e.usuarioId());
+            } else {
+                retenciones.remove(e.horarioId(), e.usuarioId());
+            }
+            recalcular();
+        }
+
+        synchronized void retener(Long horarioId, Long usuarioId) {
+            retenciones.put(horarioId, usuarioId);
+            recalcular();
+        }
+
+        synchronized void liberarRetencion(Long horarioId) {
+            if (retenciones.remove(horarioId) != null) {
+                recalcular();
+            }
+        }
+
+        /**
+         * Estado del horario para cualquier usuario que no sea dueño de la reserva, o null si está libre.
+         */
+        synchronized Estado estadoPublico(Long horarioId) {
+            return estadosPara(null).get(horarioId);
+        }
+
+        synchronized List<Long> ocupadosPara(Long usuarioId) {
+            BitSet resultado = (BitSet) siempre.clone();
+            duenos.forEach((slot, dueno) -> {
+                if (!dueno.equals(usuarioId)) {
+                    resultado.set(slot);
+                }
+            });
+
+            List<Long> ids = new ArrayList<>(resultado.cardinality());
+            resultado.stream().forEach(i -> ids.add((long) i));
+            return ids;
+        }
+
+        /**
+         * Mismo criterio que {@link #ocupadosPara}, pero distinguiendo retenciones de reservas tomadas.
+         */
+        synchronized Map<Long, Estado> estadosPara(Long usuarioId) {
+            Map<Long, Estado> estados = new HashMap<>();
+            reservas.values().forEach(o -> {
+                if (o.bloqueo() == Bloqueo.AJENO && o.usuarioId().equals(usuarioId)) return;
+                boolean retenida = o.bloqueo() == Bloqueo.AJENO && o.pendiente();
+                estados.merge(o.horarioId(), retenida ? Estado.RETENIDO : Estado.RESERVADO, Dia::mayor);
+            });
+            retenciones.forEach((horarioId, dueno) -> {
+                if (!dueno.equals(usuarioId)) {
+                    estados.merge(horarioId, Estado.RETENIDO, Dia::mayor);
+                }
+            });
+            return estados;
+        }
+
+        private static Estado mayor(Estado a, Estado b) {
+            return a.compareTo(b) >= 0 ? a : b;
+        }
+
+        private void recalcular() {
+            BitSet nuevoSiempre = new BitSet();
+            Map<Integer, Long> nuevosDuenos = new HashMap<>();
+
+            reservas.values().forEach(o -> {
+                if (o.bloqueo() == Bloqueo.TODOS) {
+                    nuevoSiempre.set(o.horarioId().intValue());
+                } else {
+                    marcarDueno(nuevoSiempre, nuevosDuenos, o.horarioId(), o.usuarioId());
+                }
+            });
+            retenciones.forEach((horarioId, usuarioId) ->
+                    marcarDueno(nuevoSiempre, nuevosDuenos, horarioId, usuarioId));
+
+            nuevosDuenos.keySet().removeIf(nuevoSiempre::get);
+            this.siempre = nuevoSiempre;
+            this.duenos = nuevosDuenos;
+        }
+
+        /**
+         * Si dos usuarios distintos ocupan el mismo horario, cualquiera que consulte lo ve ocupado.
+         */
+        private static void marcarDueno(BitSet siempre, Map<Integer, Long> duenos, Long horarioId, Long usuarioId) {
+            int slot = horarioId.intValue();
+            Long previo = duenos.putIfAbsent(slot, usuarioId);
+            if (previo != null && !previo.equals(usuarioId)) {
+                siempre.set(slot);
+            }
+        }
+    }
+}
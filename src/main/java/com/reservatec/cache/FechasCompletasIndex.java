@@ -0,0 +1,158 @@
+package com.reservatec.cache;
+
+import com.reservatec.entity.Horario;
+import com.reservatec.entity.Reserva;
+import com.reservatec.entity.enums.EstadoReserva;
+import com.reservatec.event.ReservaCambiadaEvent;
+import com.reservatec.repository.HorarioRepository;
+import com.reservatec.repository.ReservaRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Contadores en memoria de horarios tomados por (espacio, fecha), solo para fechas futuras.
+ * Cada espacio se carga una vez con sus reservas desde hoy y luego se mantiene con los eventos
+ * {@link ReservaCambiadaEvent}. Un día está completo cuando cada horario activo está tomado
+ * por una reserva PENDIENTE, ACTIVA o EN CURSO, o bloqueado por una fecha bloqueada.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FechasCompletasIndex {
+
+    private static final List<EstadoReserva> ESTADOS_QUE_OCUPAN =
+            List.of(EstadoReserva.PENDIENTE, EstadoReserva.ACTIVA, EstadoReserva.CURSO);
+
+    private final ReservaRepository reservaRepository;
+    private final HorarioRepository horarioRepository;
+    private final BloqueoIndex bloqueoIndex;
+
+    private final ConcurrentMap<Long, Contadores> espacios = new ConcurrentHashMap<>();
+
+    @Value("${reservas.fechas-completas.vigencia-segundos:300}")
+    private long vigenciaSegundos;
+
+    @Value("${reservas.fechas-completas.dias:60}")
+    private int dias;
+
+    /**
+     * Devuelve las fechas completas del espacio entre hoy y el final de la ventana configurada.
+     *
+     * @param espacioId ID del espacio
+     * @return fechas sin ningún horario activo disponible, en orden
+     */
+    public List<LocalDate> obtener(Long espacioId) {
+        LocalDate hoy = LocalDate.now();
+        Instant ahora = Instant.now();
+
+        Contadores espacio = espacios.get(espacioId);
+        if (espacio == null || espacio.vencido(ahora, vigenciaSegundos)) {
+            espacio = espacios.compute(espacioId, (k, actual) ->
+                    actual != null && !actual.vencido(ahora, vigenciaSegundos) ? actual : cargar(k, hoy));
+        }
+
+        List<Long> horarios = horarioRepository.findByActivoTrue().stream().map(Horario::getId).toList();
+        if (horarios.isEmpty()) return List.of();
+
+        List<LocalDate> completas = new ArrayList<>();
+        for (LocalDate fecha = hoy; fecha.isBefore(hoy.plusDays(dias)); fecha = fecha.plusDays(1)) {
+            if (espacio.completa(espacioId, fecha, horarios, bloqueoIndex)) {
+                completas.add(fecha);
+            }
+        }
+        return completas;
+    }
+
+    /**
+     * Actualiza los contadores del espacio afectado, si está cargado.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alCambiarReserva(ReservaCambiadaEvent evento) {
+        Contadores espacio = espacios.get(evento.espacioId());
+        if (espacio != null) {
+            espacio.aplicar(evento, LocalDate.now());
+        }
+    }
+
+    /**
+     * Descarta los contadores de días ya pasados.
+     */
+    @Scheduled(cron = "0 5 0 * * *")
+    public void purgarDiasPasados() {
+        LocalDate hoy = LocalDate.now();
+        espacios.values().forEach(e -> e.purgar(hoy));
+    }
+
+    private Contadores cargar(Long espacioId, LocalDate hoy) {
+        Contadores espacio = new Contadores(Instant.now());
+        for (Reserva r : reservaRepository.findByEspacioIdAndFechaGreaterThanEqualAndActivoTrueAndEstadoIn(
+                espacioId, hoy, ESTADOS_QUE_OCUPAN)) {
+            espacio.aplicar(ReservaCambiadaEvent.de(r), hoy);
+        }
+        log.debug("Fechas completas cargadas para espacio {}", espacioId);
+        return espacio;
+    }
+
+    private record Tomado(LocalDate fecha, Long horarioId) {
+    }
+
+    /**
+     * Reservas que ocupan horario en un espacio y, por día, cuántas ocupan cada horario.
+     */
+    private static final class Contadores {
+
+        private final Instant cargadoEn;
+        private final Map<Long, Tomado> reservas = new HashMap<>();
+        private final Map<LocalDate, Map<Long, Integer>> porDia = new HashMap<>();
+
+        Contadores(Instant cargadoEn) {
+            this.cargadoEn = cargadoEn;
+        }
+
+        boolean vencido(Instant ahora, long vigenciaSegundos) {
+            return Duration.between(cargadoEn, ahora).getSeconds() >= vigenciaSegundos;
+        }
+
+        synchronized void aplicar(ReservaCambiadaEvent e, LocalDate hoy) {
+            Tomado previo = reservas.remove(e.reservaId());
+            if (previo != null) {
+                porDia.computeIfPresent(previo.fecha(), (f, conteo) -> {
+                    conteo.computeIfPresent(previo.horarioId(), (h, n) -> n > 1 ? n - 1 : null);
+                    return conteo.isEmpty() ? null : conteo;
+                });
+            }
+
+            boolean ocupa = e.vigente() && ESTADOS_QUE_OCUPAN.contains(e.estado()) && !e.fecha().isBefore(hoy);
+            if (ocupa) {
+                reservas.put(e.reservaId(), new Tomado(e.fecha(), e.horarioId()));
+                porDia.computeIfAbsent(e.fecha(), f -> new HashMap<>()).merge(e.horarioId(), 1, Integer::sum);
+            }
+        }
+
+        synchronized boolean completa(Long espacioId, LocalDate fecha, List<Long> horarios, BloqueoIndex bloqueos) {
+            Map<Long, Integer> conteo = porDia.getOrDefault(fecha, Map.of());
+            for (Long horarioId : horarios) {
+                if (!conteo.containsKey(horarioId) && bloqueos.buscar(espacioId, horarioId, fecha).isEmpty()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        synchronized void purgar(LocalDate hoy) {
+            reservas.values().removeIf(t -> t.fecha().isBefore(hoy));
+            porDia.keySet().removeIf(f -> f.isBefore(hoy));
+        }
+    }
+}
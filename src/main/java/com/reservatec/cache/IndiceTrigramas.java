@@ -0,0 +1,145 @@
+package com.reservatec.cache;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido de trigramas para búsquedas por subcadena sin distinguir mayúsculas ni tildes.
+ * Cada documento se indexa con una lista ordenada de campos; una consulta de al menos
+ * {@link #LONGITUD_MINIMA} caracteres se resuelve intersectando las listas de sus trigramas
+ * y verificando la coincidencia real en los candidatos.
+ *
+ * @param <K> tipo de la clave del documento
+ */
+public class IndiceTrigramas<K> {
+
+    public static final int LONGITUD_MINIMA = 3;
+
+    private final Map<String, Set<K>> publicaciones = new HashMap<>();
+    private final Map<K, String[]> documentos = new HashMap<>();
+    private final ReadWriteLock candado = new ReentrantReadWriteLock();
+
+    /**
+     * Indica si la consulta es lo bastante larga para resolverse con el índice.
+     */
+    public static boolean admite(String consulta) {
+        return normalizar(consulta).length() >= LONGITUD_MINIMA;
+    }
+
+    /**
+     * Pasa a minúsculas y quita tildes y espacios en los extremos.
+     */
+    public static String normalizar(String texto) {
+        if (texto == null) return "";
+        return Normalizer.normalize(texto, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT)
+                .trim();
+    }
+
+    /**
+     * Agrega o reemplaza un documento.
+     */
+    public void indexar(K clave, List<String> campos) {
+        String[] normalizados = campos.stream().map(IndiceTrigramas::normalizar).toArray(String[]::new);
+
+        candado.writeLock().lock();
+        try {
+            quitar(clave);
+            documentos.put(clave, normalizados);
+            for (String campo : normalizados) {
+                for (String trigrama : trigramas(campo)) {
+                    publicaciones.computeIfAbsent(trigrama, t -> new HashSet<>()).add(clave);
+                }
+            }
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Quita un documento del índice.
+     */
+    public void eliminar(K clave) {
+        candado.writeLock().lock();
+        try {
+            quitar(clave);
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Devuelve los documentos que contienen la consulta en alguno de sus campos, con su rango:
+     * {@code 3 * campo + tipo}, donde tipo es 0 si el campo es igual, 1 si empieza con la consulta
+     * y 2 si solo la contiene. Menor rango significa mejor coincidencia.
+     */
+    public Map<K, Integer> coincidencias(String consulta) {
+        String texto = normalizar(consulta);
+        if (texto.length() < LONGITUD_MINIMA) {
+            throw new IllegalArgumentException("La búsqueda requiere al menos " + LONGITUD_MINIMA + " caracteres.");
+        }
+
+        candado.readLock().lock();
+        try {
+            List<Set<K>> listas = new ArrayList<>();
+            for (String trigrama : trigramas(texto)) {
+                Set<K> lista = publicaciones.get(trigrama);
+                if (lista == null) return Map.of();
+                listas.add(lista);
+            }
+            listas.sort(Comparator.comparingInt(Set::size));
+
+            Map<K, Integer> resultado = new HashMap<>();
+            for (K clave : listas.get(0)) {
+                if (!enTodas(clave, listas)) continue;
+
+                int rango = rango(documentos.get(clave), texto);
+                if (rango >= 0) resultado.put(clave, rango);
+            }
+            return resultado;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    private void quitar(K clave) {
+        String[] previos = documentos.remove(clave);
+        if (previos == null) return;
+
+        for (String campo : previos) {
+            for (String trigrama : trigramas(campo)) {
+                Set<K> lista = publicaciones.get(trigrama);
+                if (lista != null && lista.remove(clave) && lista.isEmpty()) {
+                    publicaciones.remove(trigrama);
+                }
+            }
+        }
+    }
+
+    private boolean enTodas(K clave, List<Set<K>> listas) {
+        for (int i = 1; i < listas.size(); i++) {
+            if (!listas.get(i).contains(clave)) return false;
+        }
+        return true;
+    }
+
+    private static int rango(String[] campos, String texto) {
+        for (int i = 0; i < campos.length; i++) {
+            if (campos[i].equals(texto)) return 3 * i;
+            if (campos[i].startsWith(texto)) return 3 * i + 1;
+            if (campos[i].contains(texto)) return 3 * i + 2;
+        }
+        return -1;
+    }
+
+    private static Set<String> trigramas(String texto) {
+        Set<String> resultado = new HashSet<>();
+        for (int i = 0; i + LONGITUD_MINIMA <= texto.length(); i++) {
+            resultado.add(texto.substring(i, i + LONGITUD_MINIMA));
+        }
+        return resultado;
+    }
+}
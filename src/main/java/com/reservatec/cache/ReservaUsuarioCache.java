@@ -0,0 +1,120 @@
+package com.reservatec.cache;
+
+import com.reservatec.dto.ReservaResponseDTO;
+import com.reservatec.entity.Reserva;
+import com.reservatec.entity.enums.EstadoReserva;
+import com.reservatec.event.ReservaCambiadaEnOtroNodoEvent;
+import com.reservatec.event.ReservaCambiadaEvent;
+import com.reservatec.repository.ReservaRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Estado de reservas por usuario para el cronómetro y "mis reservas".
+ * Guarda la próxima reserva ACTIVA o EN CURSO con sus instantes de inicio y fin, y el listado visible
+ * del usuario. Se invalida con cada {@link ReservaCambiadaEvent} del usuario, después del commit, y con los
+ * {@link ReservaCambiadaEnOtroNodoEvent} de los cambios hechos en otros nodos; las entradas además
+ * vencen tras {@code reservas.cronometro.vigencia-segundos} por si cambia un horario.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReservaUsuarioCache {
+
+    private static final List<EstadoReserva> ESTADOS_CRONOMETRO = List.of(EstadoReserva.ACTIVA, EstadoReserva.CURSO);
+    private static final List<EstadoReserva> ESTADOS_VISIBLES = List.of(
+            EstadoReserva.ACTIVA, EstadoReserva.CURSO, EstadoReserva.COMPLETADA, EstadoReserva.CANCELADA);
+
+    private final ReservaRepository reservaRepository;
+
+    private final ConcurrentMap<Long, Entrada<Optional<Actual>>> actuales = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Entrada<List<ReservaResponseDTO>>> listados = new ConcurrentHashMap<>();
+
+    @Value("${reservas.cronometro.vigencia-segundos:300}")
+    private long vigenciaSegundos;
+
+    /**
+     * Reserva que muestra el cronómetro: la ACTIVA o EN CURSO que empieza antes.
+     *
+     * @param reservaId ID de la reserva
+     * @param estado    ACTIVA o CURSO
+     * @param inicio    fecha y hora de inicio
+     * @param fin       fecha y hora de fin
+     */
+    public record Actual(Long reservaId, EstadoReserva estado, LocalDateTime inicio, LocalDateTime fin) {
+    }
+
+    /**
+     * Próxima reserva ACTIVA o EN CURSO del usuario, si tiene.
+     */
+    public Optional<Actual> obtenerActual(Long usuarioId) {
+        return obtener(actuales, usuarioId, id -> reservaRepository
+                .findProximaConHorario(id, ESTADOS_CRONOMETRO, Limit.of(1)).stream()
+                .findFirst()
+                .map(ReservaUsuarioCache::actual));
+    }
+
+    /**
+     * Reservas visibles del usuario (activas, en curso, completadas y canceladas), en formato DTO.
+     */
+    public List<ReservaResponseDTO> obtenerReservas(Long usuarioId) {
+        return obtener(listados, usuarioId, id -> List.copyOf(reservaRepository.listarDTOPorUsuario(id, ESTADOS_VISIBLES)));
+    }
+
+    /**
+     * Descarta el estado del usuario de la reserva que cambió.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alCambiarReserva(ReservaCambiadaEvent evento) {
+        invalidar(evento.usuarioId());
+    }
+
+    /**
+     * Descarta el estado del usuario cuyas reservas cambiaron en otro nodo.
+     */
+    @EventListener
+    public void alCambiarEnOtroNodo(ReservaCambiadaEnOtroNodoEvent evento) {
+        invalidar(evento.usuarioId());
+    }
+
+    public void invalidar(Long usuarioId) {
+        // remove espera a una carga en curso del mismo usuario, así no queda guardado un valor leído antes del cambio
+        actuales.remove(usuarioId);
+        listados.remove(usuarioId);
+    }
+
+    private <T> T obtener(ConcurrentMap<Long, Entrada<T>> mapa, Long usuarioId, Function<Long, T> cargar) {
+        Instant ahora = Instant.now();
+        Entrada<T> entrada = mapa.get(usuarioId);
+        if (entrada == null || entrada.vencida(ahora, vigenciaSegundos)) {
+            entrada = mapa.compute(usuarioId, (id, previa) ->
+                    previa != null && !previa.vencida(ahora, vigenciaSegundos) ? previa : new Entrada<>(cargar.apply(id), Instant.now()));
+        }
+        return entrada.valor();
+    }
+
+    private static Actual actual(Reserva r) {
+        return new Actual(r.getId(), r.getEstado(),
+                LocalDateTime.of(r.getFecha(), r.getHorario().getHoraInicio()),
+                LocalDateTime.of(r.getFecha(), r.getHorario().getHoraFin()));
+    }
+
+    private record Entrada<T>(T valor, Instant cargadaEn) {
+
+        boolean vencida(Instant ahora, long vigenciaSegundos) {
+            return Duration.between(cargadaEn, ahora).getSeconds() >= vigenciaSegundos;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.reservatec.client;
+
+import lombok.RequiredArgsConstructor;
+import org.redisson.api.RedissonClient;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Acceso a las retenciones temporales de reservas guardadas en Redis
+ * bajo la clave {@code reserva:{espacio}:{horario}:{fecha}}.
+ * Resuelve todas las claves de una consulta en un único comando MGET.
+ */
+@Component
+@RequiredArgsConstructor
+public class RetencionClient {
+
+    public static final String PREFIJO = "reserva:";
+
+    private final RedissonClient redissonClient;
+
+    /**
+     * Construye la clave Redis de la retención de un horario.
+     */
+    public static String clave(Long espacioId, Long horarioId, LocalDate fecha) {
+        return PREFIJO + espacioId + ":" + horarioId + ":" + fecha;
+    }
+
+    /**
+     * Obtiene en un solo viaje a Redis las retenciones existentes para las claves indicadas.
+     *
+     * @param claves claves a consultar
+     * @return mapa clave → ID del usuario que retiene; las claves inexistentes no aparecen
+     */
+    public Map<String, String> obtener(Collection<String> claves) {
+        if (claves.isEmpty()) {
+            return Map.of();
+        }
+        return redissonClient.getBuckets().get(claves.toArray(String[]::new));
+    }
+}
@@ -0,0 +1,75 @@
+package com.reservatec.config;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.util.concurrent.ImmediateEventExecutor;
+import org.redisson.client.NettyHook;
+import org.redisson.config.Config;
+
+/**
+ * Cuenta los viajes de ida y vuelta a Redis del hilo actual al nivel de la conexión: cada escritura de Redisson
+ * en el socket cuenta como un viaje, ya sea un comando o un lote enviado en pipeline (por ejemplo, un RBatch).
+ * Los objetos de Redisson no se envuelven; {@link #instalar(Config)} agrega a cada conexión de Redisson un handler
+ * de Netty que cuenta sus escrituras. Solo se cuenta entre {@link #iniciar()} y {@link #terminar()}, que
+ * {@link MetricasPeticion} llama alrededor de cada petición HTTP.
+ * <p>
+ * Redisson escribe el comando desde el hilo que lo pide si hay una conexión libre en el pool, que es lo habitual;
+ * si tuvo que esperar una, lo escribe el hilo de Netty y ese viaje no se atribuye a la petición.
+ */
+public final class ContadorRedis {
+
+    private static final ThreadLocal<int[]> VIAJES = new ThreadLocal<>();
+    private static final ChannelHandler CONTADOR = new Contador();
+
+    private ContadorRedis() {
+    }
+
+    public static void iniciar() {
+        VIAJES.set(new int[1]);
+    }
+
+    /**
+     * Deja de contar en el hilo actual y devuelve los viajes acumulados.
+     */
+    public static int terminar() {
+        int[] viajes = VIAJES.get();
+        VIAJES.remove();
+        return viajes != null ? viajes[0] : 0;
+    }
+
+    /**
+     * Configura Redisson para agregar el handler que cuenta escrituras a cada conexión que abra.
+     */
+    public static Config instalar(Config config) {
+        config.setNettyHook(new NettyHook() {
+            @Override
+            public void afterBoostrapInitialization(Bootstrap bootstrap) {
+            }
+
+            @Override
+            public void afterChannelInitialization(Channel channel) {
+                // Con un ejecutor inmediato el handler corre en el hilo que escribe, no en el del canal
+                channel.pipeline().addLast(ImmediateEventExecutor.INSTANCE, "contadorRedis", CONTADOR);
+            }
+        });
+        return config;
+    }
+
+    /**
+     * Suma un viaje por cada escritura hecha desde un hilo que está contando y la pasa sin cambios al canal.
+     */
+    @ChannelHandler.Sharable
+    private static final class Contador extends ChannelOutboundHandlerAdapter {
+
+        @Override
+        public void write(ChannelHandlerContext ctx, Object mensaje, ChannelPromise promesa) {
+            int[] viajes = VIAJES.get();
+            if (viajes != null) viajes[0]++;
+            ctx.write(mensaje, promesa);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.reservatec.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Cuenta las sentencias SQL que se ejecutan en el hilo actual, al nivel del {@link DataSource}: envuelve el pool
+ * para que cada {@code execute*} de un Statement cuente una vez, venga de Hibernate, de un JdbcTemplate o de
+ * una consulta nativa. Un {@code executeBatch} cuenta una vez, como un solo viaje a la base de datos.
+ * Solo cuenta entre {@link #iniciar()} y {@link #terminar()}, que {@link MetricasPeticion} llama alrededor
+ * de cada petición HTTP.
+ */
+@Component
+public class ContadorSentencias implements BeanPostProcessor {
+
+    private static final ThreadLocal<int[]> SENTENCIAS = new ThreadLocal<>();
+
+    public static void iniciar() {
+        SENTENCIAS.set(new int[1]);
+    }
+
+    /**
+     * Deja de contar en el hilo actual y devuelve las sentencias acumuladas.
+     */
+    public static int terminar() {
+        int[] sentencias = SENTENCIAS.get();
+        SENTENCIAS.remove();
+        return sentencias != null ? sentencias[0] : 0;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String nombre) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof Contando)) {
+            return new Contando(dataSource);
+        }
+        return bean;
+    }
+
+    /**
+     * DataSource cuyas conexiones entregan Statements que cuentan sus ejecuciones.
+     */
+    static final class Contando extends DelegatingDataSource {
+
+        Contando(DataSource destino) {
+            super(destino);
+        }
+
+        @Override
+        @NonNull
+        public Connection getConnection() throws SQLException {
+            return conexion(super.getConnection());
+        }
+
+        @Override
+        @NonNull
+        public Connection getConnection(@NonNull String usuario, @NonNull String clave) throws SQLException {
+            return conexion(super.getConnection(usuario, clave));
+        }
+    }
+
+    private static Connection conexion(Connection conexion) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, metodo, args) -> {
+                    Object resultado = invocar(proxy, conexion, metodo, args);
+                    return resultado instanceof Statement sentencia ? sentencia(sentencia, metodo.getReturnType()) : resultado;
+                });
+    }
+
+    private static Object sentencia(Statement sentencia, Class<?> tipo) {
+        Class<?> interfaz = CallableStatement.class.isAssignableFrom(tipo) ? CallableStatement.class
+                : PreparedStatement.class.isAssignableFrom(tipo) ? PreparedStatement.class
+                : Statement.class;
+        return Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[]{interfaz}, (proxy, metodo, args) -> {
+            if (metodo.getName().startsWith("execute")) {
+                int[] sentencias = SENTENCIAS.get();
+                if (sentencias != null) sentencias[0]++;
+            }
+            return invocar(proxy, sentencia, metodo, args);
+        });
+    }
+
+    /**
+     * Delega en el objeto de JDBC. La igualdad es la del proxy, porque Hibernate guarda los Statements
+     * abiertos en mapas y los busca con el mismo proxy que entregó la conexión.
+     */
+    private static Object invocar(Object proxy, Object destino, Method metodo, Object[] args) throws Throwable {
+        if (metodo.getName().equals("equals") && metodo.getParameterCount() == 1) return proxy == args[0];
+        if (metodo.getName().equals("hashCode") && metodo.getParameterCount() == 0) return System.identityHashCode(proxy);
+        try {
+            return metodo.invoke(destino, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.reservatec.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+
+/**
+ * Mide el costo de cada petición HTTP en recursos externos y lo publica por endpoint:
+ * {@code reservas.redis.viajes{uri}} con los viajes a Redis contados por {@link ContadorRedis} y
+ * {@code reservas.sql.sentencias{uri}} con las sentencias SQL contadas por {@link ContadorSentencias}.
+ * La etiqueta {@code uri} es el patrón del endpoint (por ejemplo, {@code /api/reservas/{id}/confirmar}).
+ * Con {@code reservas.sql.cabecera=true} (perfil dev) las respuestas de {@code /api/**} llevan además
+ * la cabecera {@value #CABECERA_SENTENCIAS}; para poder agregarla al final, el cuerpo se retiene hasta terminar.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class MetricasPeticion extends OncePerRequestFilter {
+
+    public static final String CABECERA_SENTENCIAS = "X-Sentencias-SQL";
+
+    private final MeterRegistry registro;
+    private final boolean cabecera;
+
+    public MetricasPeticion(MeterRegistry registro,
+                            @Value("${reservas.sql.cabecera:false}") boolean cabecera) {
+        this.registro = registro;
+        this.cabecera = cabecera;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        ContentCachingResponseWrapper retenida = cabecera && request.getRequestURI().startsWith("/api/")
+                ? new ContentCachingResponseWrapper(response)
+                : null;
+
+        ContadorRedis.iniciar();
+        ContadorSentencias.iniciar();
+        try {
+            filterChain.doFilter(request, retenida != null ? retenida : response);
+        } finally {
+            int viajes = ContadorRedis.terminar();
+            int sentencias = ContadorSentencias.terminar();
+
+            Object patron = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = patron != null ? patron.toString() : "UNKNOWN";
+            DistributionSummary.builder("reservas.redis.viajes")
+                    .tag("uri", uri)
+                    .register(registro)
+                    .record(viajes);
+            DistributionSummary.builder("reservas.sql.sentencias")
+                    .tag("uri", uri)
+                    .register(registro)
+                    .record(sentencias);
+
+            if (retenida != null) {
+                retenida.setHeader(CABECERA_SENTENCIAS, String.valueOf(sentencias));
+                retenida.copyBodyToResponse();
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.reservatec.config;
+
+import com.reservatec.exception.MotivoRechazo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Métricas del ciclo de vida de las reservas, exportadas por {@code /actuator/prometheus}:
+ * <ul>
+ *   <li>{@code reservas.creacion{resultado, motivo}}: duración y conteo de {@code crearReservaTemporal},
+ *       con el {@link MotivoRechazo} cuando se rechaza.</li>
+ *   <li>{@code reservas.confirmacion{resultado}}: duración y conteo de {@code confirmarReserva}.</li>
+ *   <li>{@code reservas.candado.espera{adquirido}}: tiempo esperando el candado de Redisson del horario.</li>
+ *   <li>{@code reservas.tarea.elementos{tarea}}: elementos procesados en cada pasada de una tarea programada;
+ *       la duración de la pasada la mide Spring en {@code tasks.scheduled.execution}.</li>
+ *   <li>{@code reservas.websocket.envios{tipo}}: mensajes STOMP enviados por tipo de destino.</li>
+ * </ul>
+ */
+@Component
+public class MetricasReservas {
+
+    private final MeterRegistry registro;
+    private final Map<String, Counter> envios = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> tareas = new ConcurrentHashMap<>();
+
+    public MetricasReservas(MeterRegistry registro) {
+        this.registro = registro;
+    }
+
+    public Timer.Sample iniciar() {
+        return Timer.start(registro);
+    }
+
+    /**
+     * Registra una creación de reserva; {@code motivo} es null si no se rechazó por una regla de negocio.
+     */
+    public void creacion(Timer.Sample muestra, String resultado, MotivoRechazo motivo) {
+        muestra.stop(Timer.builder("reservas.creacion")
+                .tag("resultado", resultado)
+                .tag("motivo", motivo != null ? motivo.name() : "ninguno")
+                .register(registro));
+    }
+
+    public void confirmacion(Timer.Sample muestra, String resultado) {
+        muestra.stop(Timer.builder("reservas.confirmacion")
+                .tag("resultado", resultado)
+                .register(registro));
+    }
+
+    public void esperaCandado(long nanos, boolean adquirido) {
+        Timer.builder("reservas.candado.espera")
+                .tag("adquirido", String.valueOf(adquirido))
+                .register(registro)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void pasada(String tarea, int elementos) {
+        tareas.computeIfAbsent(tarea, t -> DistributionSummary.builder("reservas.tarea.elementos")
+                        .tag("tarea", t)
+                        .register(registro))
+                .record(elementos);
+    }
+
+    /**
+     * Cuenta un envío STOMP; el tipo es el primer segmento tras {@code /topic/} o {@code /queue/}
+     * (por ejemplo, "reservas", "disponibilidad" o "cronometro").
+     */
+    public void envioWebSocket(String destino) {
+        envios.computeIfAbsent(tipoDe(destino), tipo -> Counter.builder("reservas.websocket.envios")
+                        .tag("tipo", tipo)
+                        .register(registro))
+                .increment();
+    }
+
+    private static String tipoDe(String destino) {
+        String[] partes = destino.split("/");
+        return partes.length > 2 ? partes[2] : destino;
+    }
+}
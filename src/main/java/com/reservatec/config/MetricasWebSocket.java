@@ -0,0 +1,68 @@
+package com.reservatec.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.config.WebSocketMessageBrokerStats;
+import org.springframework.web.socket.messaging.StompSubProtocolHandler;
+import org.springframework.web.socket.messaging.SubProtocolWebSocketHandler;
+
+import java.util.function.ToIntFunction;
+
+/**
+ * Publica en Micrometer las estadísticas de sesiones WebSocket y conexiones STOMP que Spring
+ * solo escribe periódicamente en el log.
+ */
+@Component
+public class MetricasWebSocket {
+
+    private final WebSocketMessageBrokerStats estadisticas;
+
+    public MetricasWebSocket(WebSocketMessageBrokerStats estadisticas,
+                             MeterRegistry registro,
+                             @Value("${reservas.websocket.estadisticas-log-ms:1800000}") long periodoLog) {
+        this.estadisticas = estadisticas;
+        estadisticas.setLoggingPeriod(periodoLog);
+
+        sesiones(registro, "total", SubProtocolWebSocketHandler.Stats::getTotalSessions);
+        sesiones(registro, "websocket", SubProtocolWebSocketHandler.Stats::getWebSocketSessions);
+        sesiones(registro, "http-streaming", SubProtocolWebSocketHandler.Stats::getHttpStreamingSessions);
+        sesiones(registro, "http-polling", SubProtocolWebSocketHandler.Stats::getHttpPollingSessions);
+
+        cerradas(registro, "limite-excedido", SubProtocolWebSocketHandler.Stats::getLimitExceededSessions);
+        cerradas(registro, "sin-mensajes", SubProtocolWebSocketHandler.Stats::getNoMessagesReceivedSessions);
+        cerradas(registro, "error-transporte", SubProtocolWebSocketHandler.Stats::getTransportErrorSessions);
+
+        stomp(registro, "connect", StompSubProtocolHandler.Stats::getTotalConnect);
+        stomp(registro, "connected", StompSubProtocolHandler.Stats::getTotalConnected);
+        stomp(registro, "disconnect", StompSubProtocolHandler.Stats::getTotalDisconnect);
+    }
+
+    private void sesiones(MeterRegistry registro, String tipo, ToIntFunction<SubProtocolWebSocketHandler.Stats> valor) {
+        Gauge.builder("reservas.websocket.sesiones", this, m -> m.deSesiones(valor))
+                .tag("tipo", tipo)
+                .register(registro);
+    }
+
+    private void cerradas(MeterRegistry registro, String motivo, ToIntFunction<SubProtocolWebSocketHandler.Stats> valor) {
+        FunctionCounter.builder("reservas.websocket.sesiones.cerradas", this, m -> m.deSesiones(valor))
+                .tag("motivo", motivo)
+                .register(registro);
+    }
+
+    private void stomp(MeterRegistry registro, String trama, ToIntFunction<StompSubProtocolHandler.Stats> valor) {
+        FunctionCounter.builder("reservas.websocket.stomp.tramas", this, m -> {
+                    StompSubProtocolHandler.Stats stats = m.estadisticas.getStompSubProtocolStats();
+                    return stats != null ? valor.applyAsInt(stats) : 0;
+                })
+                .tag("trama", trama)
+                .register(registro);
+    }
+
+    private double deSesiones(ToIntFunction<SubProtocolWebSocketHandler.Stats> valor) {
+        SubProtocolWebSocketHandler.Stats stats = estadisticas.getWebSocketSessionStats();
+        return stats != null ? valor.applyAsInt(stats) : 0;
+    }
+}
@@ -18,6 +18,6 @@ public class RedissonConfig {
         Config config = new Config();
         config.useSingleServer()
                 .setAddress(redisAddress);
-        return Redisson.create(config);
+        return Redisson.create(ContadorRedis.instalar(config));
     }
 }
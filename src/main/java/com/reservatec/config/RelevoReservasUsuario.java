@@ -0,0 +1,102 @@
+package com.reservatec.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reservatec.event.ReservaCambiadaEnOtroNodoEvent;
+import com.reservatec.event.ReservaCambiadaEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Avisa a los demás nodos, por pub/sub de Redis, de qué usuarios cambiaron sus reservas.
+ * Después de cada commit publica el usuario del {@link ReservaCambiadaEvent}; cada aviso recibido de otro nodo
+ * se publica localmente como {@link ReservaCambiadaEnOtroNodoEvent} para que el estado en memoria de ese usuario
+ * se descarte en todos los nodos y no solo en el que hizo el cambio. También lleva los frames de cronómetro,
+ * que cada nodo entrega solo a las sesiones conectadas a él.
+ */
+@Component
+@Slf4j
+public class RelevoReservasUsuario {
+
+    private final RTopic topico;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final String nodo = UUID.randomUUID().toString();
+
+    public RelevoReservasUsuario(RedissonClient redissonClient,
+                                 ApplicationEventPublisher eventPublisher,
+                                 ObjectMapper objectMapper,
+                                 @Value("${reservas.usuarios.canal:reservatec:reservas-usuario}") String canal) {
+        this.topico = redissonClient.getTopic(canal, StringCodec.INSTANCE);
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Se suscribe al canal de Redis una vez iniciada la aplicación.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void suscribir() {
+        topico.addListener(String.class, (canal, mensaje) -> recibir(mensaje));
+        log.info("Avisos de reservas por usuario entre nodos activos (nodo {})", nodo);
+    }
+
+    /**
+     * Publica el usuario de la reserva que cambió, después del commit para que los demás nodos lean el cambio.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alCambiarReserva(ReservaCambiadaEvent evento) {
+        publicar(new Aviso(nodo, evento.usuarioId(), null));
+    }
+
+    /**
+     * Publica un frame de cronómetro del usuario para los nodos donde tenga sesiones abiertas.
+     */
+    public void avisarCronometro(Long usuarioId, Map<String, Object> frame) {
+        publicar(new Aviso(nodo, usuarioId, frame));
+    }
+
+    private void publicar(Aviso aviso) {
+        String mensaje;
+        try {
+            mensaje = objectMapper.writeValueAsString(aviso);
+        } catch (JsonProcessingException e) {
+            log.warn("No se pudo serializar el aviso del usuario {}: {}", aviso.usuarioId(), e.getMessage());
+            return;
+        }
+        topico.publishAsync(mensaje).whenComplete((receptores, error) -> {
+            if (error != null) {
+                log.warn("No se pudo avisar el cambio del usuario {} a otros nodos: {}", aviso.usuarioId(), error.getMessage());
+            }
+        });
+    }
+
+    private void recibir(String mensaje) {
+        Aviso aviso;
+        try {
+            aviso = objectMapper.readValue(mensaje, Aviso.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Aviso de otro nodo ilegible: {}", e.getMessage());
+            return;
+        }
+        if (nodo.equals(aviso.nodo())) return;
+        eventPublisher.publishEvent(new ReservaCambiadaEnOtroNodoEvent(aviso.usuarioId(), aviso.cronometro()));
+    }
+
+    /**
+     * Aviso tal como viaja por Redis entre nodos.
+     */
+    record Aviso(String nodo, Long usuarioId, Map<String, Object> cronometro) {
+    }
+}
@@ -0,0 +1,112 @@
+package com.reservatec.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.codec.SerializationCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+
+import java.io.Serializable;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Reparte entre todos los nodos los mensajes enviados al broker simple de STOMP usando pub/sub de Redis.
+ * Cada mensaje a "/topic/**" se entrega localmente como siempre y además se publica en Redis;
+ * los demás nodos lo reinyectan en su propio broker para llegar a los clientes conectados a ellos.
+ * El cronómetro no se reparte: cada nodo lo emite a sus propias sesiones (ver {@code CronometroEmisor}),
+ * así una sesión recibe un solo frame por tick aunque haya varios nodos.
+ * Se activa con reservas.websocket.broker=REDIS.
+ */
+@Component
+@ConditionalOnProperty(name = "reservas.websocket.broker", havingValue = "REDIS")
+@Slf4j
+public class RelevoStompRedis implements ChannelInterceptor {
+
+    /** Cabecera que marca los mensajes recibidos de otro nodo para no volver a publicarlos. */
+    static final String CABECERA_ORIGEN = "reservatecNodoOrigen";
+
+    private static final String PREFIJO_TOPICOS = "/topic/";
+    private static final String PREFIJO_CRONOMETRO = "/topic/cronometro/";
+
+    private final RTopic topico;
+    private final String nodo = UUID.randomUUID().toString();
+    private final ApplicationContext contexto;
+
+    public RelevoStompRedis(RedissonClient redissonClient,
+                            ApplicationContext contexto,
+                            @Value("${reservas.websocket.canal:reservatec:websocket}") String canal) {
+        this.contexto = contexto;
+        this.topico = redissonClient.getTopic(canal, new SerializationCodec(
+                getClass().getClassLoader(), Set.of(Relevo.class.getName(), String.class.getName(), "[B")));
+    }
+
+    /**
+     * Se suscribe al canal de Redis una vez creado el canal del broker.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        conectar(contexto.getBean("brokerChannel", MessageChannel.class));
+    }
+
+    /**
+     * Reinyecta en el canal del broker local los mensajes publicados por otros nodos.
+     */
+    public void conectar(MessageChannel brokerChannel) {
+        topico.addListener(Relevo.class, (canal, relevo) -> {
+            if (nodo.equals(relevo.nodo())) return;
+
+            SimpMessageHeaderAccessor cabeceras = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+            cabeceras.setDestination(relevo.destino());
+            if (relevo.tipoContenido() != null) {
+                cabeceras.setContentType(MimeType.valueOf(relevo.tipoContenido()));
+            }
+            cabeceras.setHeader(CABECERA_ORIGEN, relevo.nodo());
+            brokerChannel.send(MessageBuilder.createMessage(relevo.cuerpo(), cabeceras.getMessageHeaders()));
+        });
+        log.info("Relevo STOMP por Redis activo (nodo {})", nodo);
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        MessageHeaders headers = message.getHeaders();
+        if (SimpMessageHeaderAccessor.getMessageType(headers) != SimpMessageType.MESSAGE) return message;
+        if (headers.containsKey(CABECERA_ORIGEN)) return message;
+
+        String destino = SimpMessageHeaderAccessor.getDestination(headers);
+        if (destino == null || !destino.startsWith(PREFIJO_TOPICOS) || destino.startsWith(PREFIJO_CRONOMETRO)) return message;
+
+        if (!(message.getPayload() instanceof byte[] cuerpo)) {
+            log.debug("Mensaje a {} sin serializar; no se reparte a otros nodos", destino);
+            return message;
+        }
+
+        Object tipo = headers.get(MessageHeaders.CONTENT_TYPE);
+        topico.publishAsync(new Relevo(nodo, destino, cuerpo, tipo != null ? tipo.toString() : null))
+                .whenComplete((receptores, error) -> {
+                    if (error != null) {
+                        log.warn("No se pudo repartir el mensaje a {}: {}", destino, error.getMessage());
+                    }
+                });
+        return message;
+    }
+
+    /**
+     * Mensaje tal como viaja por Redis entre nodos.
+     */
+    record Relevo(String nodo, String destino, byte[] cuerpo, String tipoContenido) implements Serializable {
+    }
+}
@@ -33,8 +33,10 @@ public class SecurityConfig {
                                 "/v3/api-docs/**",                 // Documentación OpenAPI JSON
                                 "/swagger-ui.html",               // Página principal de Swagger UI
                                 "/swagger-ui/**",                 // Recursos estáticos del UI
-                                "/ws/**"                          // WebSocket handshake
+                                "/ws/**",                         // WebSocket handshake
+                                "/actuator/health"                // Salud para el balanceador
                         ).permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .requestMatchers("/api/**").authenticated()
                         .anyRequest().denyAll()
                 )
@@ -48,7 +50,7 @@ public class SecurityConfig {
         configuration.setAllowedOrigins(List.of("http://localhost:5173", "https://reservatec-admin-31-220-104-112.traefik.me"));
         configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
         configuration.setAllowedHeaders(List.of("Authorization", "Content-Type"));
-        configuration.setExposedHeaders(List.of("Content-Range"));
+        configuration.setExposedHeaders(List.of("Content-Range", "X-Next-Cursor"));
         configuration.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
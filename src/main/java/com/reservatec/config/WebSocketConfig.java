@@ -1,22 +1,113 @@
 package com.reservatec.config;
 
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
+/**
+ * Configuración STOMP: broker simple en "/topic", ejecutores de los canales de entrada y salida,
+ * heartbeats del servidor y límites por sesión para soportar muchas conexiones simultáneas.
+ */
 @Configuration
 @EnableWebSocketMessageBroker
+@Slf4j
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+
+    private final ObjectProvider<RelevoStompRedis> relevoRedis;
+    private TaskScheduler programadorHeartbeat;
+
+    @Value("${reservas.websocket.entrada.hilos:8}")
+    private int hilosEntrada;
+
+    @Value("${reservas.websocket.salida.hilos:8}")
+    private int hilosSalida;
+
+    @Value("${reservas.websocket.hilos-virtuales:false}")
+    private boolean hilosVirtuales;
+
+    @Value("${reservas.websocket.heartbeat-ms:10000}")
+    private long heartbeatMs;
+
+    @Value("${reservas.websocket.envio.limite-ms:10000}")
+    private int limiteEnvioMs;
+
+    @Value("${reservas.websocket.envio.buffer-bytes:524288}")
+    private int bufferEnvioBytes;
+
+    @Value("${reservas.websocket.mensaje.max-bytes:65536}")
+    private int mensajeMaxBytes;
+
+    public WebSocketConfig(ObjectProvider<RelevoStompRedis> relevoRedis) {
+        this.relevoRedis = relevoRedis;
+    }
+
+    /**
+     * El programador del broker se crea junto con esta configuración, por eso se inyecta de forma diferida.
+     */
+    @Autowired
+    public void setProgramadorHeartbeat(@Lazy @Qualifier("messageBrokerTaskScheduler") TaskScheduler programador) {
+        this.programadorHeartbeat = programador;
+    }
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic"); // Para enviar mensajes
+        config.enableSimpleBroker("/topic") // Para enviar mensajes
+                .setHeartbeatValue(new long[]{heartbeatMs, heartbeatMs})
+                .setTaskScheduler(programadorHeartbeat);
         config.setApplicationDestinationPrefixes("/app"); // Prefijo para enviar desde el cliente
+        // Con reservas.websocket.broker=REDIS los mensajes al broker se reparten a todos los nodos
+        relevoRedis.ifAvailable(relevo -> config.configureBrokerChannel().interceptors(relevo));
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        configurarEjecutor(registration, "ws-entrada-", hilosEntrada);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        configurarEjecutor(registration, "ws-salida-", hilosSalida);
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // Una sesión que no drena sus mensajes dentro de estos límites se cierra en lugar de retener memoria
+        registration.setSendTimeLimit(limiteEnvioMs)
+                .setSendBufferSizeLimit(bufferEnvioBytes)
+                .setMessageSizeLimit(mensajeMaxBytes);
     }
 
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         registry.addEndpoint("/ws").setAllowedOrigins("*").withSockJS(); // Endpoint de conexión
     }
+
+    /**
+     * Usa hilos virtuales si se pidieron y la JVM los soporta (Java 21+); si no, un pool fijo de hilos.
+     */
+    private void configurarEjecutor(ChannelRegistration registration, String prefijo, int hilos) {
+        if (hilosVirtuales && Runtime.version().feature() >= 21) {
+            SimpleAsyncTaskExecutor ejecutor = new SimpleAsyncTaskExecutor(prefijo);
+            ejecutor.setVirtualThreads(true);
+            registration.executor(ejecutor);
+            return;
+        }
+        if (hilosVirtuales) {
+            log.warn("Hilos virtuales no disponibles en Java {}; se usa un pool de {} hilos para {}",
+                    Runtime.version().feature(), hilos, prefijo);
+        }
+        registration.taskExecutor().corePoolSize(hilos).maxPoolSize(hilos);
+    }
 }
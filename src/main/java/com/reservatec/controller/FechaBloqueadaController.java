@@ -1,12 +1,15 @@
 package com.reservatec.controller;
 
+import com.reservatec.dto.FechaBloqueadaCalendarioDTO;
 import com.reservatec.entity.FechaBloqueada;
 import com.reservatec.service.FechaBloqueadaService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -39,6 +42,16 @@ public class FechaBloqueadaController {
         return ResponseEntity.ok(fechaBloqueadaService.listarTodas());
     }
 
+    /**
+     * Lista los bloqueos vigentes entre dos fechas para mostrarlos en el calendario.
+     */
+    @GetMapping("/calendario")
+    public ResponseEntity<List<FechaBloqueadaCalendarioDTO>> listarParaCalendario(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        return ResponseEntity.ok(fechaBloqueadaService.listarParaCalendario(desde, hasta));
+    }
+
     /**
      * Crea una nueva fecha bloqueada, validando reglas mínimas.
      */
@@ -1,11 +1,13 @@
 package com.reservatec.controller;
 
+import com.reservatec.client.RetencionClient;
 import com.reservatec.dto.*;
 import com.reservatec.entity.Reserva;
 import com.reservatec.entity.Usuario;
 import com.reservatec.entity.enums.EstadoReserva;
 import com.reservatec.mapper.ReservaMapper;
 import com.reservatec.repository.ReservaRepository;
+import com.reservatec.scheduler.CronometroEmisor;
 import com.reservatec.service.ReservaService;
 import com.reservatec.service.UsuarioService;
 import com.reservatec.util.CustomUserDetails;
@@ -15,7 +17,6 @@ import org.redisson.api.RedissonClient;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
@@ -34,12 +35,13 @@ public class ReservaController {
     private final UsuarioService usuarioService;
     private final ReservaMapper reservaMapper;
     private final RedissonClient redissonClient;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final CronometroEmisor cronometroEmisor;
     private final ReservaRepository reservaRepository;
 
     /**
      * Devuelve el estado y el tiempo restante o transcurrido de la reserva activa o en curso del usuario autenticado.
      * Esta información es utilizada para actualizar el cronómetro en tiempo real.
+     * Sirve como lectura inicial: el cronómetro en vivo llega por {@code /topic/cronometro/{usuarioId}} (ver {@link CronometroEmisor}).
      *
      * @param usuario Usuario autenticado inyectado por Spring Security
      * @return Mapa con estado (ACTIVA, CURSO, COMPLETADA, NINGUNA), mensaje y segundos
@@ -61,43 +63,63 @@ public class ReservaController {
     @GetMapping("/{id}")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<ReservaResponseDTO> obtenerPorId(@PathVariable Long id) {
-        return ResponseEntity.ok(reservaMapper.toDTO(reservaService.buscarPorId(id)));
+        ReservaResponseDTO dto = reservaService.obtenerDTO(id);
+        return dto != null ? ResponseEntity.ok(dto) : ResponseEntity.notFound().build();
     }
 
     /**
-     * Lista todas las reservas registradas en el sistema.
+     * Lista las reservas registradas en el sistema, paginadas por cursor y de la más reciente a la más antigua.
      * Si se proporciona un parámetro de búsqueda (`q`), filtra por nombre de usuario, código o nombre de espacio.
+     * Devuelve el total en `Content-Range` y el cursor de la siguiente página en `X-Next-Cursor`.
      * Solo accesible para administradores.
      *
-     * @param q Parámetro de búsqueda (opcional)
-     * @return Lista de reservas mapeadas como DTO
+     * @param q      Parámetro de búsqueda (opcional); sus resultados se paginan por posición con `inicio`
+     * @param filtro Filtros opcionales: estado, activo, espacioId, desde, hasta
+     * @param cursor ID de la última reserva recibida (opcional)
+     * @param inicio Posición del primer resultado de la búsqueda
+     * @param limite Tamaño de página (máximo 500)
+     * @return Página de reservas mapeadas como DTO
      */
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<List<ReservaResponseDTO>> listarTodas(
-            @RequestParam(value = "q", required = false) String q) {
-
-        List<ReservaResponseDTO> lista = (q != null && !q.isBlank())
-                ? reservaService.buscarPorTexto(q)
-                : reservaService.listarTodas();
-
-        return ResponseEntity.ok(lista);
+            @RequestParam(value = "q", required = false) String q,
+            FiltroReservaDTO filtro,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "0") int inicio,
+            @RequestParam(defaultValue = "50") int limite) {
+
+        if (q != null && !q.isBlank()) {
+            return responderPagina(reservaService.buscarPorTexto(q, inicio, limite));
+        }
+        return responderPagina(reservaService.listarPagina(filtro, cursor, limite));
     }
+
     /**
-     * Lista únicamente las reservas activas (activo = true).
+     * Lista únicamente las reservas activas (activo = true), con la misma paginación que el listado general.
      * Utilizado normalmente para monitoreo o mantenimiento del sistema.
      * Solo accesible para administradores.
      *
-     * @return Lista de reservas activas en formato DTO
+     * @return Página de reservas activas en formato DTO
      */
     @GetMapping("/activas")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<ReservaResponseDTO>> listarSoloActivas() {
-        return ResponseEntity.ok(
-                reservaService.listarTodas().stream()
-                        .filter(r -> Boolean.TRUE.equals(r.getActivo()))
-                        .toList()
-        );
+    public ResponseEntity<List<ReservaResponseDTO>> listarSoloActivas(
+            FiltroReservaDTO filtro,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "50") int limite) {
+
+        filtro.setActivo(true);
+        return responderPagina(reservaService.listarPagina(filtro, cursor, limite));
+    }
+
+    private ResponseEntity<List<ReservaResponseDTO>> responderPagina(PaginaDTO<ReservaResponseDTO> pagina) {
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok()
+                .header("Content-Range", pagina.contentRange("reservas"));
+        if (pagina.getSiguienteCursor() != null) {
+            respuesta.header("X-Next-Cursor", pagina.getSiguienteCursor().toString());
+        }
+        return respuesta.body(pagina.getContenido());
     }
 
     /**
@@ -176,7 +198,7 @@ public class ReservaController {
                 "segundos", segundos
         );
 
-        messagingTemplate.convertAndSend("/topic/cronometro/" + confirmada.getUsuario().getId(), payload);
+        cronometroEmisor.emitir(confirmada.getUsuario().getId(), payload);
 
         return ResponseEntity.ok(new MensajeResponseDTO("Reserva confirmada con éxito", confirmada.getId()));
     }
@@ -193,7 +215,7 @@ public class ReservaController {
     public ResponseEntity<MensajeResponseDTO> cancelarReserva(@PathVariable Long id) {
         Reserva cancelada = reservaService.cancelarReserva(id);
 
-        messagingTemplate.convertAndSend("/topic/cronometro/" + cancelada.getUsuario().getId(), Map.of(
+        cronometroEmisor.emitir(cancelada.getUsuario().getId(), Map.of(
                 "estado", "NINGUNA",
                 "segundos", 0
         ));
@@ -222,10 +244,7 @@ public class ReservaController {
     @GetMapping("/mis-reservas")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<List<ReservaResponseDTO>> listarMisReservas(@AuthenticationPrincipal CustomUserDetails usuario) {
-        List<ReservaResponseDTO> reservas = reservaService.listarPorUsuario(usuario.id())
-                .stream()
-                .map(reservaMapper::toDTO)
-                .toList();
+        List<ReservaResponseDTO> reservas = reservaService.listarPorUsuario(usuario.id());
 
         return ResponseEntity.ok()
                 .header("Content-Range", "reservas 0-" + (reservas.size() - 1) + "/" + reservas.size())
@@ -276,7 +295,7 @@ public class ReservaController {
             @RequestParam Long horarioId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha
     ) {
-        String key = "reserva:" + espacioId + ":" + horarioId + ":" + fecha;
+        String key = RetencionClient.clave(espacioId, horarioId, fecha);
         RBucket<String> bloque = redissonClient.getBucket(key);
         long ttlMs = bloque.remainTimeToLive();
         return ResponseEntity.ok(bloque.isExists() ? (int) (ttlMs / 1000) : 0);
@@ -305,6 +324,32 @@ public class ReservaController {
         return ResponseEntity.ok(reservaService.obtenerHorariosOcupados(espacioId, fecha, usuario.id()));
     }
 
+    /**
+     * Retorna la disponibilidad de un espacio para un rango de fechas (máximo 62 días) en una sola llamada.
+     * Cada día trae una cadena con un carácter por horario, en el orden de {@code horarios}:
+     * L = libre, R = retenido por otro usuario, O = ocupado, B = bloqueado.
+     *
+     * @param espacioId ID del espacio
+     * @param desde     Primer día del rango
+     * @param hasta     Último día del rango
+     * @param usuario   Usuario autenticado
+     * @return Matriz compacta de disponibilidad
+     */
+    @GetMapping("/disponibilidad")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<DisponibilidadRangoDTO> obtenerDisponibilidad(
+            @RequestParam Long espacioId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @AuthenticationPrincipal CustomUserDetails usuario) {
+
+        if (usuario == null) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return ResponseEntity.ok(reservaService.obtenerDisponibilidad(espacioId, desde, hasta, usuario.id()));
+    }
+
     /**
      * Retorna una lista de fechas en las que todos los horarios del espacio están ocupados (fecha completa).
      *
@@ -345,13 +390,20 @@ public class ReservaController {
     /**
      * Búsqueda libre de reservas por texto, aplicable a campos como nombre de usuario, código o nombre de espacio.
      *
-     * @param texto Texto a buscar
-     * @return Lista de coincidencias encontradas
+     * Los resultados vienen ordenados por relevancia y paginados; el total se informa en `Content-Range`.
+     *
+     * @param texto  Texto a buscar
+     * @param inicio Posición del primer resultado
+     * @param limite Tamaño de página (máximo 500)
+     * @return Página de coincidencias encontradas
      */
     @GetMapping("/buscar")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<ReservaResponseDTO>> buscarPorTexto(@RequestParam("q") String texto) {
-        return ResponseEntity.ok(reservaService.buscarPorTexto(texto));
+    public ResponseEntity<List<ReservaResponseDTO>> buscarPorTexto(
+            @RequestParam("q") String texto,
+            @RequestParam(defaultValue = "0") int inicio,
+            @RequestParam(defaultValue = "50") int limite) {
+        return responderPagina(reservaService.buscarPorTexto(texto, inicio, limite));
     }
 
     /**
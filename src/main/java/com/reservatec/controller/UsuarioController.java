@@ -1,5 +1,6 @@
 package com.reservatec.controller;
 
+import com.reservatec.dto.PaginaDTO;
 import com.reservatec.dto.PerfilUsuarioDTO;
 import com.reservatec.entity.Usuario;
 import com.reservatec.mapper.UsuarioMapper;
@@ -28,15 +29,28 @@ public class UsuarioController {
     /**
      * Lista todos los usuarios o filtra por nombre/documento con el parámetro 'q'.
      * Retorna encabezado `Content-Range` para facilitar paginación en frontend tipo React-Admin.
+     * La búsqueda se pagina con `inicio` y `limite`, ordenada por relevancia.
      *
-     * @param q cadena de búsqueda opcional
+     * @param q      cadena de búsqueda opcional
+     * @param inicio posición del primer resultado de la búsqueda
+     * @param limite tamaño de página de la búsqueda (máximo 500)
      * @return lista de usuarios
      */
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping
-    public ResponseEntity<List<Usuario>> listar(@RequestParam(value = "q", required = false) String q) {
-        List<Usuario> lista = (q != null && !q.isBlank()) ? usuarioService.buscar(q) : usuarioService.listarTodos();
+    public ResponseEntity<List<Usuario>> listar(
+            @RequestParam(value = "q", required = false) String q,
+            @RequestParam(defaultValue = "0") int inicio,
+            @RequestParam(defaultValue = "50") int limite) {
 
+        if (q != null && !q.isBlank()) {
+            PaginaDTO<Usuario> pagina = usuarioService.buscar(q, inicio, limite);
+            return ResponseEntity.ok()
+                    .header("Content-Range", pagina.contentRange("usuarios"))
+                    .body(pagina.getContenido());
+        }
+
+        List<Usuario> lista = usuarioService.listarTodos();
         return ResponseEntity.ok()
                 .header("Content-Range", "usuarios 0-" + (lista.size() - 1) + "/" + lista.size())
                 .body(lista);
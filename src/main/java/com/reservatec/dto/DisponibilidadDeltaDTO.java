@@ -0,0 +1,16 @@
+package com.reservatec.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Cambio de estado de un horario publicado en {@code /topic/disponibilidad/{espacioId}/{fecha}}.
+ * El estado usa los mismos códigos que {@link DisponibilidadRangoDTO}: L = libre, R = retenido, O = ocupado,
+ * tal como lo ve un usuario distinto del dueño de la reserva.
+ */
+@Data
+@AllArgsConstructor
+public class DisponibilidadDeltaDTO {
+    private Long horarioId;
+    private String estado;
+}
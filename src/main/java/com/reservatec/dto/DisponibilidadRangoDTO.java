@@ -0,0 +1,20 @@
+package com.reservatec.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Matriz de disponibilidad de un espacio: por cada día, una cadena con un carácter por horario
+ * en el mismo orden que {@code horarios}.
+ * L = libre, R = retenido por otro usuario, O = ocupado, B = bloqueado.
+ */
+@Data
+@AllArgsConstructor
+public class DisponibilidadRangoDTO {
+    private Long espacioId;
+    private List<Long> horarios;
+    private Map<String, String> dias;
+}
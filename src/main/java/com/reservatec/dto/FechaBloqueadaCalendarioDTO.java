@@ -0,0 +1,16 @@
+package com.reservatec.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class FechaBloqueadaCalendarioDTO {
+    private Long id;
+    private String fechaInicio;
+    private String fechaFin;
+    private String motivo;
+    private String tipoBloqueo;
+    private Long espacioId;
+    private Long horarioId;
+}
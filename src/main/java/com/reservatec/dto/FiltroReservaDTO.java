@@ -0,0 +1,23 @@
+package com.reservatec.dto;
+
+import com.reservatec.entity.enums.EstadoReserva;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Filtros opcionales del listado administrativo de reservas; los campos nulos no filtran.
+ */
+@Data
+public class FiltroReservaDTO {
+    private EstadoReserva estado;
+    private Boolean activo;
+    private Long espacioId;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate desde;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate hasta;
+}
@@ -0,0 +1,30 @@
+package com.reservatec.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Página de un listado, paginado por cursor (keyset) o por posición; en este último caso {@code siguienteCursor} es nulo.
+ *
+ * @param <T> tipo de los elementos
+ */
+@Data
+@AllArgsConstructor
+public class PaginaDTO<T> {
+    private List<T> contenido;
+    private long inicio;
+    private long total;
+    private Long siguienteCursor;
+
+    /**
+     * Valor para el encabezado {@code Content-Range} al estilo React-Admin: "recurso inicio-fin/total".
+     */
+    public String contentRange(String recurso) {
+        if (contenido.isEmpty()) {
+            return recurso + " */" + total;
+        }
+        return recurso + " " + inicio + "-" + (inicio + contenido.size() - 1) + "/" + total;
+    }
+}
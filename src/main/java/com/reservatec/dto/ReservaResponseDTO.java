@@ -2,10 +2,14 @@ package com.reservatec.dto;
 
 import com.reservatec.entity.enums.EstadoReserva;
 import lombok.Data;
+import lombok.NoArgsConstructor;
+
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 
 @Data
+@NoArgsConstructor
 public class ReservaResponseDTO {
     private Long id;
     private String codigoReserva;
@@ -27,4 +31,30 @@ public class ReservaResponseDTO {
     private Boolean activo;
     private Boolean asistenciaConfirmada;
 
+    /**
+     * Constructor usado por las proyecciones JPQL ({@code SELECT new ...}) de {@code ReservaRepository},
+     * que arman el DTO en una sola consulta sin cargar las entidades relacionadas.
+     */
+    public ReservaResponseDTO(Long id, String codigoReserva, LocalDate fecha, EstadoReserva estado,
+                              String espacioNombre, Long espacioId,
+                              LocalTime horarioInicio, LocalTime horarioFin,
+                              String usuarioNombre, String usuarioEmail, String usuarioCode,
+                              LocalDateTime fechaCreacion, LocalDateTime fechaActualizacion,
+                              Boolean activo, Boolean asistenciaConfirmada) {
+        this.id = id;
+        this.codigoReserva = codigoReserva;
+        this.fecha = fecha;
+        this.estado = estado;
+        this.espacioNombre = espacioNombre;
+        this.espacioId = espacioId;
+        this.horarioInicio = horarioInicio.toString();
+        this.horarioFin = horarioFin.toString();
+        this.usuarioNombre = usuarioNombre;
+        this.usuarioEmail = usuarioEmail;
+        this.usuarioCode = usuarioCode;
+        this.fechaCreacion = fechaCreacion;
+        this.fechaActualizacion = fechaActualizacion;
+        this.activo = activo;
+        this.asistenciaConfirmada = asistenciaConfirmada;
+    }
 }
@@ -0,0 +1,14 @@
+package com.reservatec.event;
+
+import java.util.Map;
+
+/**
+ * Evento publicado localmente cuando otro nodo avisa que cambiaron las reservas de un usuario.
+ * Lo consumen los estados en memoria por usuario que el {@link ReservaCambiadaEvent} solo invalida en el nodo
+ * donde ocurrió el cambio.
+ *
+ * @param usuarioId  ID del usuario cuyas reservas cambiaron
+ * @param cronometro frame de cronómetro que emitió el otro nodo, o null si solo avisó del cambio
+ */
+public record ReservaCambiadaEnOtroNodoEvent(Long usuarioId, Map<String, Object> cronometro) {
+}
@@ -0,0 +1,90 @@
+package com.reservatec.event;
+
+import com.reservatec.entity.Reserva;
+import com.reservatec.entity.enums.EstadoReserva;
+
+import java.time.LocalDate;
+
+/**
+ * Evento publicado cada vez que una reserva cambia de estado, se crea o deja de existir.
+ * Lo consumen los índices en memoria que deben mantenerse sincronizados con la base de datos.
+ *
+ * @param reservaId            ID de la reserva
+ * @param codigoReserva        código público de la reserva
+ * @param espacioId            ID del espacio reservado
+ * @param horarioId            ID del horario reservado
+ * @param fecha                fecha de la reserva
+ * @param usuarioId            ID del usuario dueño de la reserva
+ * @param estado               estado final de la reserva
+ * @param asistenciaConfirmada si la asistencia ya fue confirmada
+ * @param vigente              false si la reserva fue eliminada o inactivada
+ * @param eliminada            true si la reserva se borró físicamente y ya no existe en la base de datos
+ */
+public record ReservaCambiadaEvent(
+        Long reservaId,
+        String codigoReserva,
+        Long espacioId,
+        Long horarioId,
+        LocalDate fecha,
+        Long usuarioId,
+        EstadoReserva estado,
+        boolean asistenciaConfirmada,
+        boolean vigente,
+        boolean eliminada
+) {
+
+    /**
+     * Construye el evento a partir del estado actual de la reserva.
+     */
+    public static ReservaCambiadaEvent de(Reserva r) {
+        return new ReservaCambiadaEvent(
+                r.getId(),
+                r.getCodigoReserva(),
+                r.getEspacio().getId(),
+                r.getHorario().getId(),
+                r.getFecha(),
+                r.getUsuario().getId(),
+                r.getEstado(),
+                Boolean.TRUE.equals(r.getAsistenciaConfirmada()),
+                Boolean.TRUE.equals(r.getActivo()),
+                false
+        );
+    }
+
+    /**
+     * Construye el evento para una reserva cuyo estado se cambió con una actualización masiva
+     * y cuya entidad en memoria todavía conserva el estado anterior.
+     */
+    public static ReservaCambiadaEvent de(Reserva r, EstadoReserva nuevoEstado) {
+        return new ReservaCambiadaEvent(
+                r.getId(),
+                r.getCodigoReserva(),
+                r.getEspacio().getId(),
+                r.getHorario().getId(),
+                r.getFecha(),
+                r.getUsuario().getId(),
+                nuevoEstado,
+                Boolean.TRUE.equals(r.getAsistenciaConfirmada()),
+                Boolean.TRUE.equals(r.getActivo()),
+                false
+        );
+    }
+
+    /**
+     * Construye el evento para una reserva que fue eliminada físicamente.
+     */
+    public static ReservaCambiadaEvent eliminada(Reserva r) {
+        return new ReservaCambiadaEvent(
+                r.getId(),
+                r.getCodigoReserva(),
+                r.getEspacio().getId(),
+                r.getHorario().getId(),
+                r.getFecha(),
+                r.getUsuario().getId(),
+                r.getEstado(),
+                Boolean.TRUE.equals(r.getAsistenciaConfirmada()),
+                false,
+                true
+        );
+    }
+}
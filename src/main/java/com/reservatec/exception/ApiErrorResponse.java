@@ -1,5 +1,6 @@
 package com.reservatec.exception;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -14,4 +15,8 @@ public class ApiErrorResponse {
     private String error;
     private String message;
     private String path;
+
+    /** Código del motivo de rechazo, solo en errores de negocio que lo tienen (ver {@link MotivoRechazo}). */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String codigo;
 }
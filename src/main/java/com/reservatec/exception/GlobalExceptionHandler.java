@@ -22,6 +22,15 @@ public class GlobalExceptionHandler {
         return buildResponse(ex.getMessage(), HttpStatus.CONFLICT, request.getRequestURI());
     }
 
+    @ExceptionHandler(ReservaRechazadaException.class)
+    public ResponseEntity<ApiErrorResponse> handleReservaRechazada(
+            ReservaRechazadaException ex, HttpServletRequest request) {
+        ResponseEntity<ApiErrorResponse> respuesta =
+                buildResponse(ex.getMessage(), ex.getMotivo().getStatus(), request.getRequestURI());
+        respuesta.getBody().setCodigo(ex.getMotivo().name());
+        return respuesta;
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiErrorResponse> handleGenericException(
             Exception ignored, HttpServletRequest request) {
@@ -0,0 +1,31 @@
+package com.reservatec.exception;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Motivos por los que se rechaza la creación de una reserva, en el orden en que se evalúan.
+ * El nombre se devuelve como {@code codigo} en {@link ApiErrorResponse} para que el frontend
+ * no dependa del texto del mensaje.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum MotivoRechazo {
+
+    DIA_NO_PERMITIDO(HttpStatus.BAD_REQUEST, "No se permiten reservas los días domingo."),
+    ESPACIO_INACTIVO(HttpStatus.BAD_REQUEST, "No se puede reservar un espacio inactivo."),
+    FECHA_BLOQUEADA(HttpStatus.BAD_REQUEST, "No puedes reservar en una fecha bloqueada."),
+    HORARIO_CONFIRMADO(HttpStatus.BAD_REQUEST, "Este horario ya fue reservado y confirmado."),
+    HORARIO_POR_TERMINAR(HttpStatus.BAD_REQUEST, "No puedes reservar en un horario que ya está por terminar."),
+    RESERVA_VIGENTE(HttpStatus.BAD_REQUEST, "Ya tienes una reserva vigente. No puedes crear otra."),
+    PERIODO_DE_ESPERA(HttpStatus.BAD_REQUEST, "Solo puedes reservar nuevamente después de 7 días desde tu última cancelación o reserva completada."),
+    HORARIO_OCUPADO(HttpStatus.BAD_REQUEST, "Este espacio ya está siendo reservado en este horario."),
+    CONTIGUA_DESPUES_MISMA_CARRERA(HttpStatus.BAD_REQUEST, "No puedes reservar inmediatamente después de otro alumno de tu misma carrera."),
+    CONTIGUA_ANTES_MISMA_CARRERA(HttpStatus.BAD_REQUEST, "No puedes reservar inmediatamente antes de otro alumno de tu misma carrera."),
+    HORARIO_RETENIDO(HttpStatus.CONFLICT, "Este espacio ya está siendo reservado temporalmente."),
+    HORARIO_EN_PROCESO(HttpStatus.CONFLICT, "El sistema está procesando otra reserva similar. Intenta nuevamente.");
+
+    private final HttpStatus status;
+    private final String mensaje;
+}
@@ -0,0 +1,21 @@
+package com.reservatec.exception;
+
+import lombok.Getter;
+
+/**
+ * Rechazo de la creación de una reserva por una regla de negocio, con su código estructurado.
+ */
+@Getter
+public class ReservaRechazadaException extends RuntimeException {
+
+    private final MotivoRechazo motivo;
+
+    public ReservaRechazadaException(MotivoRechazo motivo) {
+        this(motivo, motivo.getMensaje());
+    }
+
+    public ReservaRechazadaException(MotivoRechazo motivo, String mensaje) {
+        super(mensaje);
+        this.motivo = motivo;
+    }
+}
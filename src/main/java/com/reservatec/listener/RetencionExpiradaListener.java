@@ -0,0 +1,85 @@
+package com.reservatec.listener;
+
+import com.reservatec.client.RetencionClient;
+import com.reservatec.service.ReservaService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.redisnode.RedisMaster;
+import org.redisson.api.redisnode.RedisNodes;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Escucha los eventos de expiración de claves de Redis y libera la reserva PENDIENTE
+ * asociada en cuanto vence su retención temporal, sin esperar al barrido periódico.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RetencionExpiradaListener {
+
+    private static final String CANAL_EXPIRADAS = "__keyevent@*__:expired";
+
+    private final RedissonClient redissonClient;
+    private final ReservaService reservaService;
+
+    @Value("${reservas.retencion.configurar-notificaciones:true}")
+    private boolean configurarNotificaciones;
+
+    /**
+     * Activa las notificaciones de expiración en Redis (si está permitido) y se suscribe al canal.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void suscribir() {
+        if (configurarNotificaciones) {
+            activarNotificaciones();
+        }
+
+        redissonClient.getPatternTopic(CANAL_EXPIRADAS, StringCodec.INSTANCE)
+                .addListener(String.class, (patron, canal, clave) -> procesar(clave));
+        log.info("Suscrito a expiraciones de retenciones en Redis ({})", CANAL_EXPIRADAS);
+    }
+
+    private void procesar(String clave) {
+        if (clave == null || !clave.startsWith(RetencionClient.PREFIJO)) return;
+
+        // reserva:{espacio}:{horario}:{fecha}
+        String[] partes = clave.substring(RetencionClient.PREFIJO.length()).split(":");
+        if (partes.length != 3) return;
+
+        try {
+            reservaService.expirarReservaTemporal(
+                    Long.valueOf(partes[0]), Long.valueOf(partes[1]), LocalDate.parse(partes[2]));
+        } catch (Exception e) {
+            // El barrido periódico de liberarReservasNoConfirmadas la recogerá
+            log.warn("No se pudo liberar la retención expirada {}: {}", clave, e.getMessage());
+        }
+    }
+
+    /**
+     * Agrega las banderas "Ex" a notify-keyspace-events conservando las que ya estuvieran activas.
+     */
+    private void activarNotificaciones() {
+        try {
+            RedisMaster nodo = redissonClient.getRedisNodes(RedisNodes.SINGLE).getInstance();
+            String actual = nodo.getConfig("notify-keyspace-events")
+                    .getOrDefault("notify-keyspace-events", "");
+
+            boolean tieneExpiradas = actual.contains("x") || actual.contains("A");
+            boolean tieneKeyevent = actual.contains("E");
+            if (tieneExpiradas && tieneKeyevent) return;
+
+            String nuevo = actual + (tieneKeyevent ? "" : "E") + (tieneExpiradas ? "" : "x");
+            nodo.setConfig("notify-keyspace-events", nuevo);
+            log.info("notify-keyspace-events actualizado a '{}'", nuevo);
+        } catch (Exception e) {
+            log.warn("No se pudo configurar notify-keyspace-events; se dependerá del barrido periódico: {}", e.getMessage());
+        }
+    }
+}
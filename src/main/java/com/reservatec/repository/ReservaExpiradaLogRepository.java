@@ -2,8 +2,13 @@ package com.reservatec.repository;
 
 import com.reservatec.entity.ReservaExpiradaLog;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 
 /**
  * Repositorio JPA para la entidad {@link ReservaExpiradaLog}.
@@ -21,4 +26,22 @@ public interface ReservaExpiradaLogRepository extends JpaRepository<ReservaExpir
      * @return Número de registros encontrados en ese intervalo
      */
     long countByFechaBetween(LocalDate fechaInicio, LocalDate fechaFin);
+
+    /**
+     * Registra en una sola sentencia (INSERT ... SELECT) el log de expiración
+     * de las reservas indicadas que sigan en estado PENDIENTE.
+     *
+     * @param reservaIds      IDs de las reservas que expiraron
+     * @param fechaExpiracion instante de la expiración
+     * @return número de logs insertados
+     */
+    @Modifying
+    @Query("""
+            INSERT INTO ReservaExpiradaLog (reservaId, usuarioId, espacioId, horarioId, fecha, fechaExpiracion)
+            SELECT r.id, r.usuario.id, r.espacio.id, r.horario.id, r.fecha, :fechaExpiracion
+            FROM Reserva r
+            WHERE r.id IN :reservaIds AND r.estado = com.reservatec.entity.enums.EstadoReserva.PENDIENTE
+            """)
+    int registrarExpiradas(@Param("reservaIds") Collection<Long> reservaIds,
+                           @Param("fechaExpiracion") LocalDateTime fechaExpiracion);
 }
@@ -1,14 +1,21 @@
 package com.reservatec.repository;
 
+import com.reservatec.dto.ReservaResponseDTO;
 import com.reservatec.dto.ReservasPorCarreraEspacioMesDTO;
 import com.reservatec.entity.Reserva;
 import com.reservatec.entity.enums.EstadoReserva;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.EntityGraph;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,6 +25,23 @@ import java.util.Optional;
  */
 public interface ReservaRepository extends JpaRepository<Reserva, Long> {
 
+    /**
+     * Filtros opcionales del listado administrativo; un parámetro nulo no filtra.
+     */
+    String FILTRO_ADMIN = " WHERE (:estado IS NULL OR r.estado = :estado)"
+            + " AND (:activo IS NULL OR r.activo = :activo)"
+            + " AND (:espacioId IS NULL OR r.espacio.id = :espacioId)"
+            + " AND (:desde IS NULL OR r.fecha >= :desde)"
+            + " AND (:hasta IS NULL OR r.fecha <= :hasta)";
+
+    /**
+     * Proyección que arma {@link ReservaResponseDTO} en la misma consulta, uniendo espacio, horario y usuario.
+     */
+    String PROYECCION_DTO = "SELECT new com.reservatec.dto.ReservaResponseDTO("
+            + "r.id, r.codigoReserva, r.fecha, r.estado, e.nombre, e.id, h.horaInicio, h.horaFin,"
+            + " u.name, u.email, u.code, r.fechaCreacion, r.fechaActualizacion, r.activo, r.asistenciaConfirmada)"
+            + " FROM Reserva r JOIN r.espacio e JOIN r.horario h JOIN r.usuario u";
+
     // === CONSULTAS POR UNICIDAD ===
 
     /**
@@ -25,6 +49,11 @@ public interface ReservaRepository extends JpaRepository<Reserva, Long> {
      */
     Optional<Reserva> findByEspacioIdAndHorarioIdAndFecha(Long espacioId, Long horarioId, LocalDate fecha);
 
+    /**
+     * Reservas de un espacio, horario y fecha en un estado específico.
+     */
+    List<Reserva> findByEspacioIdAndHorarioIdAndFechaAndEstado(Long espacioId, Long horarioId, LocalDate fecha, EstadoReserva estado);
+
     // === CONSULTAS POR USUARIO ===
 
     /**
@@ -42,6 +71,15 @@ public interface ReservaRepository extends JpaRepository<Reserva, Long> {
      */
     List<Reserva> findByUsuarioId(Long usuarioId);
 
+    /**
+     * Reservas del usuario en los estados indicados, con su horario, de la que empieza antes a la que empieza después.
+     */
+    @Query("SELECT r FROM Reserva r JOIN FETCH r.horario h WHERE r.usuario.id = :usuarioId AND r.estado IN :estados"
+            + " ORDER BY r.fecha, h.horaInicio")
+    List<Reserva> findProximaConHorario(@Param("usuarioId") Long usuarioId,
+                                        @Param("estados") Collection<EstadoReserva> estados,
+                                        Limit limite);
+
     /**
      * Reservas de un usuario en un estado específico.
      */
@@ -64,11 +102,130 @@ public interface ReservaRepository extends JpaRepository<Reserva, Long> {
      */
     List<Reserva> findByEstado(EstadoReserva estado);
 
+    /**
+     * Reservas en un estado creadas antes de un instante (p. ej. PENDIENTE con TTL ya vencido).
+     */
+    List<Reserva> findByEstadoAndFechaCreacionBefore(EstadoReserva estado, LocalDateTime limite);
+
     /**
      * Todas las reservas en múltiples estados.
      */
     List<Reserva> findByEstadoIn(List<EstadoReserva> estados);
 
+    /**
+     * Reservas en múltiples estados, con su horario ya cargado.
+     */
+    @Query("SELECT r FROM Reserva r JOIN FETCH r.horario WHERE r.estado IN :estados")
+    List<Reserva> findByEstadoInConHorario(@Param("estados") List<EstadoReserva> estados);
+
+    // === PROYECCIONES A DTO ===
+
+    /**
+     * Una reserva proyectada a DTO.
+     */
+    @Query(PROYECCION_DTO + " WHERE r.id = :id")
+    Optional<ReservaResponseDTO> buscarDTOPorId(@Param("id") Long id);
+
+    /**
+     * Reservas activas de un usuario en los estados indicados, proyectadas a DTO.
+     */
+    @Query(PROYECCION_DTO + " WHERE u.id = :usuarioId AND r.estado IN :estados AND r.activo = true ORDER BY r.id")
+    List<ReservaResponseDTO> listarDTOPorUsuario(@Param("usuarioId") Long usuarioId,
+                                                 @Param("estados") Collection<EstadoReserva> estados);
+
+    /**
+     * Búsqueda parcial (sin distinguir mayúsculas) por nombre o código de usuario,
+     * nombre del espacio o código de reserva, proyectada a DTO.
+     */
+    @Query(PROYECCION_DTO + " WHERE LOWER(u.name) LIKE LOWER(CONCAT('%', :texto, '%'))"
+            + " OR LOWER(u.code) LIKE LOWER(CONCAT('%', :texto, '%'))"
+            + " OR LOWER(e.nombre) LIKE LOWER(CONCAT('%', :texto, '%'))"
+            + " OR LOWER(r.codigoReserva) LIKE LOWER(CONCAT('%', :texto, '%'))"
+            + " ORDER BY r.id")
+    List<ReservaResponseDTO> buscarDTOPorTexto(@Param("texto") String texto);
+
+    /**
+     * Reservas indicadas proyectadas a DTO (sin orden garantizado).
+     */
+    @Query(PROYECCION_DTO + " WHERE r.id IN :ids")
+    List<ReservaResponseDTO> buscarDTOPorIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * ID, código, usuario y espacio de todas las reservas, para construir el índice de búsqueda.
+     */
+    @Query("SELECT r.id, r.codigoReserva, r.usuario.id, r.espacio.id FROM Reserva r")
+    List<Object[]> listarClavesBusqueda();
+
+    // === LISTADO ADMINISTRATIVO (PAGINACIÓN POR CURSOR) ===
+
+    /**
+     * Página de reservas con ID menor al cursor, de la más reciente a la más antigua,
+     * proyectada directamente a DTO.
+     */
+    @Query(PROYECCION_DTO + FILTRO_ADMIN + " AND r.id < :cursor ORDER BY r.id DESC")
+    List<ReservaResponseDTO> buscarPagina(@Param("estado") EstadoReserva estado,
+                               @Param("activo") Boolean activo,
+                               @Param("espacioId") Long espacioId,
+                               @Param("desde") LocalDate desde,
+                               @Param("hasta") LocalDate hasta,
+                               @Param("cursor") Long cursor,
+                               Limit limite);
+
+    /**
+     * Total de reservas que cumplen los filtros y cuántas de ellas preceden al cursor
+     * (ID mayor o igual), para armar el encabezado {@code Content-Range} en una sola consulta.
+     */
+    @Query("SELECT COUNT(r), COALESCE(SUM(CASE WHEN r.id >= :cursor THEN 1 ELSE 0 END), 0) FROM Reserva r"
+            + FILTRO_ADMIN)
+    List<Object[]> contarPagina(@Param("estado") EstadoReserva estado,
+                                @Param("activo") Boolean activo,
+                                @Param("espacioId") Long espacioId,
+                                @Param("desde") LocalDate desde,
+                                @Param("hasta") LocalDate hasta,
+                                @Param("cursor") Long cursor);
+
+    // === ACTUALIZACIONES MASIVAS ===
+
+    /**
+     * Reservas por ID, bloqueadas para actualización hasta el fin de la transacción.
+     * Evita que otra transacción cambie su estado entre la validación y la actualización masiva.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Reserva r WHERE r.id IN :ids")
+    List<Reserva> findAllByIdParaActualizar(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Cambia el estado de varias reservas en una sola sentencia.
+     *
+     * @return número de filas actualizadas
+     */
+    @Modifying
+    @Query("UPDATE Reserva r SET r.estado = :estado, r.fechaActualizacion = :ahora WHERE r.id IN :ids")
+    int actualizarEstado(@Param("ids") Collection<Long> ids,
+                         @Param("estado") EstadoReserva estado,
+                         @Param("ahora") LocalDateTime ahora);
+
+    /**
+     * Elimina en una sola sentencia las reservas indicadas que sigan en estado PENDIENTE.
+     *
+     * @return número de filas eliminadas
+     */
+    @Modifying
+    @Query("DELETE FROM Reserva r WHERE r.id IN :ids AND r.estado = com.reservatec.entity.enums.EstadoReserva.PENDIENTE")
+    int eliminarPendientes(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Reservas del usuario que deciden si puede reservar: sus PENDIENTE, sus ACTIVA o EN CURSO vigentes
+     * y sus COMPLETADA o CANCELADA con fecha posterior a {@code finEspera}.
+     */
+    @Query("SELECT r FROM Reserva r WHERE r.usuario.id = :usuarioId AND ("
+            + "r.estado = com.reservatec.entity.enums.EstadoReserva.PENDIENTE"
+            + " OR (r.estado IN (com.reservatec.entity.enums.EstadoReserva.ACTIVA, com.reservatec.entity.enums.EstadoReserva.CURSO)"
+            + " AND r.activo = true)"
+            + " OR (r.estado IN (com.reservatec.entity.enums.EstadoReserva.COMPLETADA, com.reservatec.entity.enums.EstadoReserva.CANCELADA)"
+            + " AND r.fecha > :finEspera))")
+    List<Reserva> findParaElegibilidad(@Param("usuarioId") Long usuarioId, @Param("finEspera") LocalDate finEspera);
+
     // === CONSULTAS POR ESPACIO ===
 
     /**
@@ -76,6 +233,25 @@ public interface ReservaRepository extends JpaRepository<Reserva, Long> {
      */
     List<Reserva> findByEspacioIdAndFechaAndActivoTrue(Long espacioId, LocalDate fecha);
 
+    /**
+     * Todas las reservas de un espacio en una fecha (cualquier estado), con su horario y usuario ya cargados.
+     */
+    @Query("SELECT r FROM Reserva r JOIN FETCH r.horario JOIN FETCH r.usuario"
+            + " WHERE r.espacio.id = :espacioId AND r.fecha = :fecha")
+    List<Reserva> findByEspacioIdAndFechaConHorarioYUsuario(@Param("espacioId") Long espacioId,
+                                                            @Param("fecha") LocalDate fecha);
+
+    /**
+     * Reservas activas en un espacio dentro de un rango de fechas (ambos extremos incluidos).
+     */
+    List<Reserva> findByEspacioIdAndFechaBetweenAndActivoTrue(Long espacioId, LocalDate desde, LocalDate hasta);
+
+    /**
+     * Reservas activas de un espacio desde una fecha en adelante, con alguno de los estados indicados.
+     */
+    List<Reserva> findByEspacioIdAndFechaGreaterThanEqualAndActivoTrueAndEstadoIn(
+            Long espacioId, LocalDate desde, Collection<EstadoReserva> estados);
+
     /**
      * Todas las reservas activas asociadas a un espacio.
      */
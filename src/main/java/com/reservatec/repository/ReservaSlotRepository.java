@@ -0,0 +1,65 @@
+package com.reservatec.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Reclamos de horario (tabla {@code reserva_slots}) para la creación optimista de reservas.
+ * La clave primaria (espacio, horario, fecha) hace que solo una transacción pueda reclamar un horario:
+ * las demás esperan a que confirme y fallan. Se usa JDBC directo porque una clave duplicada es un
+ * resultado esperado y no debe marcar la transacción JPA para rollback.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ReservaSlotRepository {
+
+    /** La reserva del reclamo sigue viva y no es una PENDIENTE del mismo usuario, que la nueva reemplaza. */
+    private static final String RESERVA_VIVA_DE_OTRO = "SELECT 1 FROM reservas r WHERE r.id = reserva_slots.reserva_id"
+            + " AND r.activo = TRUE AND r.estado IN ('PENDIENTE', 'ACTIVA', 'CURSO')"
+            + " AND NOT (r.estado = 'PENDIENTE' AND r.usuario_id = ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Reclama el horario dentro de la transacción actual.
+     * Si ya tiene reclamo, lo retoma solo cuando su reserva fue cancelada, completada, desactivada o eliminada,
+     * o cuando es una reserva PENDIENTE del mismo usuario.
+     *
+     * @return {@code true} si la transacción actual quedó con el horario
+     */
+    public boolean reclamar(Long espacioId, Long horarioId, LocalDate fecha, Long usuarioId) {
+        LocalDateTime ahora = LocalDateTime.now();
+        try {
+            jdbcTemplate.update("INSERT INTO reserva_slots (espacio_id, horario_id, fecha, reserva_id, fecha_reclamo)"
+                    + " VALUES (?, ?, ?, NULL, ?)", espacioId, horarioId, fecha, ahora);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return jdbcTemplate.update("UPDATE reserva_slots SET reserva_id = NULL, fecha_reclamo = ?"
+                    + " WHERE espacio_id = ? AND horario_id = ? AND fecha = ?"
+                    + " AND (reserva_id IS NULL OR NOT EXISTS (" + RESERVA_VIVA_DE_OTRO + "))",
+                    ahora, espacioId, horarioId, fecha, usuarioId) == 1;
+        }
+    }
+
+    /**
+     * Asocia el reclamo a la reserva recién creada.
+     */
+    public void asignar(Long espacioId, Long horarioId, LocalDate fecha, Long reservaId) {
+        jdbcTemplate.update("UPDATE reserva_slots SET reserva_id = ? WHERE espacio_id = ? AND horario_id = ? AND fecha = ?",
+                reservaId, espacioId, horarioId, fecha);
+    }
+
+    /**
+     * Elimina los reclamos de fechas anteriores a la indicada.
+     *
+     * @return cantidad de reclamos eliminados
+     */
+    public int eliminarAnterioresA(LocalDate fecha) {
+        return jdbcTemplate.update("DELETE FROM reserva_slots WHERE fecha < ?", fecha);
+    }
+}
@@ -0,0 +1,169 @@
+package com.reservatec.scheduler;
+
+import com.reservatec.config.MetricasReservas;
+import com.reservatec.config.RelevoReservasUsuario;
+import com.reservatec.event.ReservaCambiadaEnOtroNodoEvent;
+import com.reservatec.event.ReservaCambiadaEvent;
+import com.reservatec.service.ReservaService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Emite el cronómetro por STOMP en {@code /topic/cronometro/{usuarioId}} para que el cliente no tenga que consultar
+ * {@code /api/reservas/cronometro}. Un único tick programado envía, solo a usuarios suscritos con una reserva
+ * ACTIVA o EN CURSO, un frame compacto {@code {estado, segundos}}. Los cambios de estado de un usuario dentro
+ * del mismo tick se combinan en un solo frame, que reemplaza al tick de ese usuario.
+ * <p>
+ * Con varios nodos, cada uno emite solo a las sesiones conectadas a él y el cronómetro no pasa por el relevo STOMP,
+ * de modo que cada sesión recibe a lo sumo un frame por tick. Los frames de estado y los cambios de reservas
+ * de otros nodos llegan por {@link RelevoReservasUsuario}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CronometroEmisor {
+
+    private static final String DESTINO = "/topic/cronometro/";
+
+    /** Marca de "enviar el estado actual", que se calcula al momento del tick. */
+    private static final Map<String, Object> ESTADO_ACTUAL = Collections.unmodifiableMap(new HashMap<>());
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ReservaService reservaService;
+    private final MetricasReservas metricas;
+    private final RelevoReservasUsuario relevoReservasUsuario;
+
+    /** Sesión → (suscripción → usuario). */
+    private final Map<String, Map<String, Long>> sesiones = new ConcurrentHashMap<>();
+    /** Usuario → cantidad de suscripciones abiertas. */
+    private final Map<Long, AtomicInteger> suscritos = new ConcurrentHashMap<>();
+    /** Frames de estado pendientes para el próximo tick, uno por usuario. */
+    private final Map<Long, Map<String, Object>> pendientes = new ConcurrentHashMap<>();
+
+    /**
+     * Encola un frame de estado para el usuario; si ya tenía uno en este tick, lo reemplaza.
+     * El frame se reenvía a los demás nodos por si el usuario tiene sesiones abiertas en ellos.
+     */
+    public void emitir(Long usuarioId, Map<String, Object> frame) {
+        pendientes.put(usuarioId, frame);
+        relevoReservasUsuario.avisarCronometro(usuarioId, frame);
+    }
+
+    /**
+     * Tras un cambio en sus reservas, el usuario recibe su estado actual en el próximo tick.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alCambiarReserva(ReservaCambiadaEvent evento) {
+        pendientes.putIfAbsent(evento.usuarioId(), ESTADO_ACTUAL);
+    }
+
+    /**
+     * Lo emitido o cambiado en otro nodo se envía en el próximo tick, solo si el usuario está suscrito en este.
+     */
+    @EventListener
+    public void alCambiarEnOtroNodo(ReservaCambiadaEnOtroNodoEvent evento) {
+        if (!suscritos.containsKey(evento.usuarioId())) return;
+
+        if (evento.cronometro() != null) {
+            pendientes.put(evento.usuarioId(), evento.cronometro());
+        } else {
+            pendientes.putIfAbsent(evento.usuarioId(), ESTADO_ACTUAL);
+        }
+    }
+
+    @EventListener
+    public void alSuscribirse(SessionSubscribeEvent evento) {
+        StompHeaderAccessor cabeceras = StompHeaderAccessor.wrap(evento.getMessage());
+        Long usuarioId = usuarioDe(cabeceras.getDestination());
+        if (usuarioId == null || cabeceras.getSessionId() == null) return;
+
+        sesiones.computeIfAbsent(cabeceras.getSessionId(), s -> new ConcurrentHashMap<>())
+                .put(String.valueOf(cabeceras.getSubscriptionId()), usuarioId);
+        suscritos.computeIfAbsent(usuarioId, u -> new AtomicInteger()).incrementAndGet();
+        pendientes.putIfAbsent(usuarioId, ESTADO_ACTUAL);
+    }
+
+    @EventListener
+    public void alDesuscribirse(SessionUnsubscribeEvent evento) {
+        StompHeaderAccessor cabeceras = StompHeaderAccessor.wrap(evento.getMessage());
+        Map<String, Long> suscripciones = cabeceras.getSessionId() != null ? sesiones.get(cabeceras.getSessionId()) : null;
+        if (suscripciones != null) {
+            Long usuarioId = suscripciones.remove(String.valueOf(cabeceras.getSubscriptionId()));
+            if (usuarioId != null) liberar(usuarioId);
+        }
+    }
+
+    @EventListener
+    public void alDesconectarse(SessionDisconnectEvent evento) {
+        Map<String, Long> suscripciones = sesiones.remove(evento.getSessionId());
+        if (suscripciones != null) {
+            suscripciones.values().forEach(this::liberar);
+        }
+    }
+
+    /**
+     * Envía los frames de estado pendientes y, al resto de usuarios suscritos con una reserva vigente, el tick.
+     */
+    @Scheduled(fixedRateString = "${reservas.cronometro.tick-ms}")
+    public void tick() {
+        Set<Long> atendidos = new HashSet<>();
+        for (Long usuarioId : pendientes.keySet()) {
+            Map<String, Object> frame = pendientes.remove(usuarioId);
+            if (frame == null || !suscritos.containsKey(usuarioId)) continue;
+
+            enviar(usuarioId, frame == ESTADO_ACTUAL ? reservaService.obtenerTiempoCronometro(usuarioId) : frame);
+            atendidos.add(usuarioId);
+        }
+
+        for (Long usuarioId : suscritos.keySet()) {
+            if (atendidos.contains(usuarioId)) continue;
+
+            Map<String, Object> actual = reservaService.obtenerTiempoCronometro(usuarioId);
+            Object estado = actual.get("estado");
+            if ("ACTIVA".equals(estado) || "CURSO".equals(estado)) {
+                enviar(usuarioId, Map.of("estado", estado, "segundos", actual.get("segundos")));
+                atendidos.add(usuarioId);
+            }
+        }
+        metricas.pasada("cronometro-tick", atendidos.size());
+    }
+
+    private void enviar(Long usuarioId, Map<String, Object> frame) {
+        try {
+            messagingTemplate.convertAndSend(DESTINO + usuarioId, frame);
+            metricas.envioWebSocket(DESTINO);
+        } catch (Exception e) {
+            log.warn("No se pudo enviar el cronómetro al usuario {}: {}", usuarioId, e.getMessage());
+        }
+    }
+
+    private void liberar(Long usuarioId) {
+        suscritos.computeIfPresent(usuarioId, (u, cantidad) -> cantidad.decrementAndGet() > 0 ? cantidad : null);
+    }
+
+    private static Long usuarioDe(String destino) {
+        if (destino == null || !destino.startsWith(DESTINO)) return null;
+        try {
+            return Long.valueOf(destino.substring(DESTINO.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
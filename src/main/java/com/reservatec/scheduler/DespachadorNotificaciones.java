@@ -0,0 +1,109 @@
+package com.reservatec.scheduler;
+
+import com.reservatec.config.MetricasReservas;
+import com.reservatec.util.TransaccionUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Agrupa las notificaciones STOMP por destino y las envía en una sola ráfaga cada
+ * {@code reservas.notificaciones.ventana-ms}. Los mensajes iguales a un mismo destino dentro de la ventana
+ * (por ejemplo, varios "actualizar" de una transición masiva) se envían una sola vez; los mensajes con clave
+ * reemplazan al pendiente con la misma clave. Nada se encola hasta que la transacción en curso confirma sus cambios.
+ */
+@Component
+@Slf4j
+public class DespachadorNotificaciones {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final MetricasReservas metricas;
+
+    /** Destino → (clave → mensaje) pendientes, en orden de llegada. Solo se modifican dentro de compute. */
+    private final Map<String, Map<Object, Object>> pendientes = new ConcurrentHashMap<>();
+    private final AtomicInteger profundidad = new AtomicInteger();
+
+    private final Counter encolados;
+    private final Counter descartados;
+    private final Counter enviados;
+
+    public DespachadorNotificaciones(SimpMessagingTemplate messagingTemplate, MetricasReservas metricas, MeterRegistry registro) {
+        this.messagingTemplate = messagingTemplate;
+        this.metricas = metricas;
+        Gauge.builder("reservas.notificaciones.pendientes", profundidad, AtomicInteger::get)
+                .description("Mensajes STOMP en espera del próximo envío")
+                .register(registro);
+        Gauge.builder("reservas.notificaciones.destinos", pendientes, Map::size)
+                .description("Destinos STOMP con mensajes en espera")
+                .register(registro);
+        this.encolados = Counter.builder("reservas.notificaciones.encoladas").register(registro);
+        this.descartados = Counter.builder("reservas.notificaciones.combinadas")
+                .description("Mensajes descartados por repetir o reemplazar uno ya pendiente")
+                .register(registro);
+        this.enviados = Counter.builder("reservas.notificaciones.enviadas").register(registro);
+    }
+
+    /**
+     * Encola el mensaje tras el commit de la transacción actual (o de inmediato si no hay una).
+     */
+    public void encolar(String destino, Object mensaje) {
+        encolar(destino, mensaje, mensaje);
+    }
+
+    /**
+     * Encola el mensaje tras el commit; si ya había uno pendiente con la misma clave en el destino, lo reemplaza.
+     * Sirve para estados donde solo importa el último valor dentro de la ventana.
+     */
+    public void encolar(String destino, Object clave, Object mensaje) {
+        TransaccionUtil.despuesDelCommit(() -> agregar(destino, clave, mensaje));
+    }
+
+    /**
+     * Envía los mensajes acumulados durante la ventana, uno por destino y clave.
+     */
+    @Scheduled(fixedDelayString = "${reservas.notificaciones.ventana-ms}")
+    public void vaciar() {
+        int enviadosEnPasada = 0;
+        for (String destino : pendientes.keySet()) {
+            Map<Object, Object> mensajes = pendientes.remove(destino);
+            if (mensajes == null) continue;
+
+            profundidad.addAndGet(-mensajes.size());
+            for (Object mensaje : mensajes.values()) {
+                try {
+                    messagingTemplate.convertAndSend(destino, mensaje);
+                    enviados.increment();
+                    metricas.envioWebSocket(destino);
+                    enviadosEnPasada++;
+                } catch (Exception e) {
+                    log.warn("No se pudo notificar a {}: {}", destino, e.getMessage());
+                }
+            }
+        }
+        metricas.pasada("notificaciones-vaciar", enviadosEnPasada);
+    }
+
+    private void agregar(String destino, Object clave, Object mensaje) {
+        encolados.increment();
+        pendientes.compute(destino, (d, mensajes) -> {
+            Map<Object, Object> actuales = mensajes != null ? mensajes : new LinkedHashMap<>();
+            // Se quita antes de insertar para que el reemplazo quede al final, en el orden de llegada
+            if (actuales.remove(clave) == null) {
+                profundidad.incrementAndGet();
+            } else {
+                descartados.increment();
+            }
+            actuales.put(clave, mensaje);
+            return actuales;
+        });
+    }
+}
@@ -0,0 +1,160 @@
+package com.reservatec.scheduler;
+
+import com.reservatec.config.MetricasReservas;
+import com.reservatec.entity.Horario;
+import com.reservatec.entity.Reserva;
+import com.reservatec.entity.enums.EstadoReserva;
+import com.reservatec.event.ReservaCambiadaEvent;
+import com.reservatec.repository.HorarioRepository;
+import com.reservatec.repository.ReservaRepository;
+import com.reservatec.service.TransicionReservaService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Programa las transiciones automáticas de cada reserva ACTIVA o EN CURSO
+ * (inicio, fin y tolerancia de asistencia) en una {@link RuedaTemporizadora}.
+ * En cada tick solo se procesan las reservas cuyo instante venció, en lugar de
+ * recorrer todas las reservas vigentes.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReservaTemporizador {
+
+    private final ReservaRepository reservaRepository;
+    private final HorarioRepository horarioRepository;
+    private final TransicionReservaService transicionReservaService;
+    private final MetricasReservas metricas;
+
+    private final RuedaTemporizadora<Transicion> rueda =
+            new RuedaTemporizadora<>(1000, 64, 4, System.currentTimeMillis());
+    private final Set<Transicion> programadas = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Horario> horarios = new ConcurrentHashMap<>();
+
+    /**
+     * Reconstruye la rueda desde la base de datos al iniciar. Se repite cada cierto tiempo
+     * para recoger reservas confirmadas en otros nodos; las ya programadas no se duplican.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${reservas.temporizador.resincronizar-ms}",
+            fixedDelayString = "${reservas.temporizador.resincronizar-ms}")
+    public void reconstruir() {
+        horarios.clear();
+        List<Reserva> vigentes = reservaRepository.findByEstadoInConHorario(
+                List.of(EstadoReserva.ACTIVA, EstadoReserva.CURSO));
+
+        for (Reserva r : vigentes) {
+            horarios.putIfAbsent(r.getHorario().getId(), r.getHorario());
+            programar(r.getId(), r.getEstado(), r.getFecha(), r.getHorario().getId(),
+                    Boolean.TRUE.equals(r.getAsistenciaConfirmada()));
+        }
+        metricas.pasada("temporizador-reconstruir", vigentes.size());
+        log.info("Temporizador de reservas sincronizado: {} reservas vigentes, {} transiciones pendientes",
+                vigentes.size(), rueda.tamano());
+    }
+
+    /**
+     * Programa las transiciones de las reservas que pasan a ACTIVA o CURSO.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alCambiarReserva(ReservaCambiadaEvent evento) {
+        if (evento.estado() == EstadoReserva.ACTIVA || evento.estado() == EstadoReserva.CURSO) {
+            programar(evento.reservaId(), evento.estado(), evento.fecha(), evento.horarioId(),
+                    evento.asistenciaConfirmada());
+        }
+    }
+
+    /**
+     * Avanza la rueda y aplica las transiciones vencidas, agrupadas por tipo.
+     */
+    @Scheduled(fixedRate = 1000)
+    public void avanzar() {
+        List<Transicion> vencidas = rueda.avanzar(System.currentTimeMillis());
+        metricas.pasada("temporizador-avanzar", vencidas.size());
+        if (vencidas.isEmpty()) return;
+        vencidas.forEach(programadas::remove);
+
+        Map<Tipo, List<Long>> porTipo = vencidas.stream().collect(Collectors.groupingBy(
+                Transicion::tipo, () -> new EnumMap<>(Tipo.class),
+                Collectors.mapping(Transicion::reservaId, Collectors.toList())));
+
+        aplicar(Tipo.INICIO, porTipo.get(Tipo.INICIO), transicionReservaService::iniciar);
+        aplicar(Tipo.FIN, porTipo.get(Tipo.FIN), transicionReservaService::finalizar);
+        aplicar(Tipo.INASISTENCIA, porTipo.get(Tipo.INASISTENCIA), ids ->
+                transicionReservaService.cancelarInasistencias(ids)
+                        .forEach((id, limite) -> agregar(new Transicion(id, Tipo.INASISTENCIA), limite)));
+    }
+
+    /**
+     * Aplica un lote de un solo tipo. Si falla, el lote vuelve a la rueda para el siguiente tick
+     * sin afectar a los lotes de los otros tipos; las transiciones son idempotentes porque
+     * el servicio revalida el estado de cada reserva antes de aplicarlas.
+     */
+    private void aplicar(Tipo tipo, List<Long> reservaIds, Consumer<List<Long>> accion) {
+        if (reservaIds == null) return;
+        try {
+            accion.accept(reservaIds);
+        } catch (Exception e) {
+            log.error("Error al aplicar {} transiciones {}; se reintentan en el siguiente tick: {}",
+                    reservaIds.size(), tipo, e.getMessage(), e);
+            long ahora = System.currentTimeMillis();
+            reservaIds.forEach(id -> agregar(new Transicion(id, tipo), ahora));
+        }
+    }
+
+    private void programar(Long reservaId, EstadoReserva estado, LocalDate fecha, Long horarioId, boolean asistenciaConfirmada) {
+        Horario horario = obtenerHorario(horarioId);
+        if (horario == null) return;
+
+        LocalDateTime inicio = LocalDateTime.of(fecha, horario.getHoraInicio());
+        LocalDateTime fin = LocalDateTime.of(fecha, horario.getHoraFin());
+
+        if (estado == EstadoReserva.ACTIVA) {
+            agregar(new Transicion(reservaId, Tipo.INICIO), inicio);
+        }
+        agregar(new Transicion(reservaId, Tipo.FIN), fin.plusSeconds(1));
+        if (!asistenciaConfirmada) {
+            agregar(new Transicion(reservaId, Tipo.INASISTENCIA), inicio.plusSeconds(TransicionReservaService.TOLERANCIA_ASISTENCIA_SEGUNDOS + 1));
+        }
+    }
+
+    private void agregar(Transicion transicion, LocalDateTime instante) {
+        agregar(transicion, instante.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+
+    private void agregar(Transicion transicion, long instanteMs) {
+        if (programadas.add(transicion)) {
+            rueda.programar(instanteMs, transicion);
+        }
+    }
+
+    private Horario obtenerHorario(Long horarioId) {
+        Horario horario = horarios.get(horarioId);
+        if (horario == null) {
+            horarioRepository.findAll().forEach(h -> horarios.put(h.getId(), h));
+            horario = horarios.get(horarioId);
+        }
+        return horario;
+    }
+
+    private enum Tipo {
+        INICIO, FIN, INASISTENCIA
+    }
+
+    private record Transicion(Long reservaId, Tipo tipo) {
+    }
+}
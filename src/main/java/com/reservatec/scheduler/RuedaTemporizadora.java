@@ -0,0 +1,128 @@
+package com.reservatec.scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rueda de temporización jerárquica (hierarchical timing wheel).
+ * Cada nivel tiene {@code ranuras} ranuras y cada ranura del nivel {@code i} cubre
+ * {@code tickMs * ranuras^i} milisegundos; las tareas lejanas bajan de nivel a medida
+ * que se acerca su vencimiento. Programar y vencer una tarea cuesta O(1) amortizado.
+ * Los métodos están sincronizados: se programa desde varios hilos y se avanza desde uno.
+ *
+ * @param <T> tipo de la tarea programada
+ */
+public class RuedaTemporizadora<T> {
+
+    private final long tickMs;
+    private final int ranuras;
+    private final long[] duracionRanura;
+    private final List<List<Entrada<T>>[]> niveles = new ArrayList<>();
+    private final List<Entrada<T>> desborde = new ArrayList<>();
+    private final List<Entrada<T>> vencidas = new ArrayList<>();
+
+    private long actualMs;
+    private int tamano;
+
+    @SuppressWarnings("unchecked")
+    public RuedaTemporizadora(long tickMs, int ranuras, int cantidadNiveles, long inicioMs) {
+        this.tickMs = tickMs;
+        this.ranuras = ranuras;
+        this.duracionRanura = new long[cantidadNiveles];
+        this.actualMs = inicioMs - (inicioMs % tickMs);
+
+        long duracion = tickMs;
+        for (int i = 0; i < cantidadNiveles; i++) {
+            duracionRanura[i] = duracion;
+            List<Entrada<T>>[] nivel = new List[ranuras];
+            for (int j = 0; j < ranuras; j++) {
+                nivel[j] = new ArrayList<>();
+            }
+            niveles.add(nivel);
+            duracion *= ranuras;
+        }
+    }
+
+    /**
+     * Programa una tarea para el instante indicado (epoch en milisegundos).
+     * Si el instante ya pasó, la tarea se entrega en el siguiente avance.
+     */
+    public synchronized void programar(long vencimientoMs, T tarea) {
+        ubicar(new Entrada<>(vencimientoMs, tarea));
+        tamano++;
+    }
+
+    /**
+     * Avanza la rueda hasta {@code ahoraMs} y devuelve las tareas vencidas.
+     */
+    public synchronized List<T> avanzar(long ahoraMs) {
+        List<T> resultado = new ArrayList<>();
+        drenar(vencidas, resultado);
+
+        while (actualMs + tickMs <= ahoraMs) {
+            actualMs += tickMs;
+            drenar(niveles.get(0)[indice(0, actualMs)], resultado);
+
+            // Bajar de nivel las ranuras superiores que empiezan en este instante
+            if (actualMs % (duracionRanura[duracionRanura.length - 1] * ranuras) == 0) {
+                reubicar(desborde);
+            }
+            for (int i = duracionRanura.length - 1; i > 0; i--) {
+                if (actualMs % duracionRanura[i] == 0) {
+                    reubicar(niveles.get(i)[indice(i, actualMs)]);
+                }
+            }
+
+            drenar(vencidas, resultado);
+        }
+
+        tamano -= resultado.size();
+        return resultado;
+    }
+
+    /**
+     * Cantidad de tareas pendientes en la rueda.
+     */
+    public synchronized int tamano() {
+        return tamano;
+    }
+
+    private void ubicar(Entrada<T> entrada) {
+        long espera = entrada.vencimientoMs() - actualMs;
+        if (espera <= 0) {
+            vencidas.add(entrada);
+            return;
+        }
+        if (espera < tickMs * ranuras) {
+            // Nivel 0: se redondea hacia arriba para no vencer nunca antes del instante pedido
+            niveles.get(0)[indice(0, entrada.vencimientoMs() + tickMs - 1)].add(entrada);
+            return;
+        }
+        for (int i = 1; i < duracionRanura.length; i++) {
+            if (espera < duracionRanura[i] * ranuras) {
+                // Niveles superiores: la ranura se reubica al comenzar su intervalo
+                niveles.get(i)[indice(i, entrada.vencimientoMs())].add(entrada);
+                return;
+            }
+        }
+        desborde.add(entrada);
+    }
+
+    private void drenar(List<Entrada<T>> entradas, List<T> destino) {
+        entradas.forEach(e -> destino.add(e.tarea()));
+        entradas.clear();
+    }
+
+    private void reubicar(List<Entrada<T>> entradas) {
+        List<Entrada<T>> copia = new ArrayList<>(entradas);
+        entradas.clear();
+        copia.forEach(this::ubicar);
+    }
+
+    private int indice(int nivel, long instanteMs) {
+        return (int) ((instanteMs / duracionRanura[nivel]) % ranuras);
+    }
+
+    private record Entrada<T>(long vencimientoMs, T tarea) {
+    }
+}
@@ -1,6 +1,9 @@
 package com.reservatec.service;
 
+import com.reservatec.dto.FechaBloqueadaCalendarioDTO;
 import com.reservatec.entity.FechaBloqueada;
+
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -23,6 +26,16 @@ public interface FechaBloqueadaService {
      */
     List<FechaBloqueada> listarTodas();
 
+    /**
+     * Lista los bloqueos vigentes (activos y no ignorados) que se cruzan con un rango de fechas,
+     * para pintarlos en el calendario.
+     *
+     * @param desde fecha inicial del rango (inclusive)
+     * @param hasta fecha final del rango (inclusive)
+     * @return bloqueos vigentes ordenados por fecha de inicio
+     */
+    List<FechaBloqueadaCalendarioDTO> listarParaCalendario(LocalDate desde, LocalDate hasta);
+
     /**
      * Registra una nueva fecha bloqueada.
      *
@@ -79,6 +79,20 @@ public interface ReservaService {
      */
     void liberarReservasNoConfirmadas();
 
+    /**
+     * Elimina los reclamos de horario de fechas pasadas usados por la creación optimista.
+     */
+    void purgarReclamosPasados();
+
+    /**
+     * Libera la reserva PENDIENTE de un horario cuya retención temporal en Redis acaba de expirar.
+     *
+     * @param espacioId identificador del espacio
+     * @param horarioId identificador del horario
+     * @param fecha     fecha de la reserva
+     */
+    void expirarReservaTemporal(Long espacioId, Long horarioId, LocalDate fecha);
+
     // === CONSULTAS POR USUARIO O ADMIN ===
 
     /**
@@ -87,14 +101,17 @@ public interface ReservaService {
      * @param usuarioId identificador del usuario
      * @return lista de reservas
      */
-    List<Reserva> listarPorUsuario(Long usuarioId);
+    List<ReservaResponseDTO> listarPorUsuario(Long usuarioId);
 
     /**
-     * Lista todas las reservas del sistema (uso administrativo).
+     * Lista una página de reservas (uso administrativo) con paginación por cursor.
      *
-     * @return lista de reservas
+     * @param filtro filtros opcionales (estado, activo, espacio, rango de fechas)
+     * @param cursor ID de la última reserva de la página anterior, o null para la primera
+     * @param limite cantidad máxima de reservas por página
+     * @return página de reservas con su posición y total
      */
-    List<ReservaResponseDTO> listarTodas();
+    PaginaDTO<ReservaResponseDTO> listarPagina(FiltroReservaDTO filtro, Long cursor, int limite);
 
     /**
      * Busca una reserva por su ID.
@@ -104,13 +121,23 @@ public interface ReservaService {
      */
     Reserva buscarPorId(Long id);
 
+    /**
+     * Obtiene una reserva por su ID directamente en formato DTO.
+     *
+     * @param id identificador de la reserva
+     * @return DTO de la reserva o null si no existe
+     */
+    ReservaResponseDTO obtenerDTO(Long id);
+
     /**
      * Busca reservas por texto en campos de usuario, espacio u otros relacionados.
      *
-     * @param texto texto a buscar
-     * @return lista de reservas coincidentes
+     * @param texto  texto a buscar
+     * @param inicio posición del primer resultado
+     * @param limite cantidad máxima de resultados
+     * @return página de reservas coincidentes, de la mejor coincidencia a la peor
      */
-    List<ReservaResponseDTO> buscarPorTexto(String texto);
+    PaginaDTO<ReservaResponseDTO> buscarPorTexto(String texto, int inicio, int limite);
 
     // === CONSULTAS PARA CALENDARIOS Y BLOQUEOS ===
 
@@ -132,6 +159,17 @@ public interface ReservaService {
      */
     List<Long> obtenerHorariosOcupados(Long espacioId, LocalDate fecha, Long usuarioIdActual);
 
+    /**
+     * Devuelve la matriz de disponibilidad (día × horario) de un espacio para un rango de fechas.
+     *
+     * @param espacioId       identificador del espacio
+     * @param desde           primer día del rango (inclusive)
+     * @param hasta           último día del rango (inclusive)
+     * @param usuarioIdActual id del usuario que consulta
+     * @return matriz compacta con el estado de cada horario por día
+     */
+    DisponibilidadRangoDTO obtenerDisponibilidad(Long espacioId, LocalDate desde, LocalDate hasta, Long usuarioIdActual);
+
     /**
      * Devuelve una lista de fechas donde todos los horarios están completamente ocupados.
      *
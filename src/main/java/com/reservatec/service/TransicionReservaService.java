@@ -0,0 +1,37 @@
+package com.reservatec.service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Servicio que aplica las transiciones automáticas de estado de las reservas
+ * en el instante en que vencen (inicio, fin y tolerancia de asistencia).
+ */
+public interface TransicionReservaService {
+
+    /** Segundos desde el inicio de la reserva para confirmar la asistencia antes de cancelarla por inasistencia. */
+    long TOLERANCIA_ASISTENCIA_SEGUNDOS = 600;
+
+    /**
+     * Pasa a CURSO las reservas ACTIVA cuyo horario ya comenzó.
+     *
+     * @param reservaIds reservas cuyo inicio venció
+     */
+    void iniciar(Collection<Long> reservaIds);
+
+    /**
+     * Pasa a COMPLETADA las reservas en CURSO cuyo horario ya terminó.
+     *
+     * @param reservaIds reservas cuyo fin venció
+     */
+    void finalizar(Collection<Long> reservaIds);
+
+    /**
+     * Cancela las reservas sin asistencia confirmada pasada la {@link #TOLERANCIA_ASISTENCIA_SEGUNDOS tolerancia} desde su inicio.
+     *
+     * @param reservaIds reservas cuyo plazo de asistencia venció
+     * @return reservas creadas hace menos que la tolerancia, con el instante en que vence su plazo real
+     */
+    Map<Long, LocalDateTime> cancelarInasistencias(Collection<Long> reservaIds);
+}
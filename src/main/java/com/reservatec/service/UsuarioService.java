@@ -1,5 +1,6 @@
 package com.reservatec.service;
 
+import com.reservatec.dto.PaginaDTO;
 import com.reservatec.entity.Usuario;
 
 import java.util.List;
@@ -64,8 +65,10 @@ public interface UsuarioService {
     /**
      * Realiza una búsqueda parcial por nombre, código o correo.
      *
-     * @param query texto a buscar
-     * @return lista de usuarios que coincidan con el criterio
+     * @param query  texto a buscar
+     * @param inicio posición del primer resultado
+     * @param limite cantidad máxima de resultados
+     * @return página de usuarios que coincidan con el criterio, del más al menos relevante
      */
-    List<Usuario> buscar(String query);
+    PaginaDTO<Usuario> buscar(String query, int inicio, int limite);
 }
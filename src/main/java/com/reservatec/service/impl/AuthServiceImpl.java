@@ -1,5 +1,6 @@
 package com.reservatec.service.impl;
 
+import com.reservatec.cache.BusquedaIndex;
 import com.reservatec.dto.GoogleUserDTO;
 import com.reservatec.entity.Usuario;
 import com.reservatec.repository.UsuarioRepository;
@@ -25,6 +26,7 @@ public class AuthServiceImpl implements AuthService {
 
     private final UsuarioRepository usuarioRepository;
     private final JwtUtil jwtUtil;
+    private final BusquedaIndex busquedaIndex;
 
     /**
      * Valida si un usuario autenticado por Google está registrado y autorizado con el rol esperado.
@@ -69,6 +71,7 @@ public class AuthServiceImpl implements AuthService {
 
         if (cambios) {
             usuarioRepository.save(usuario);
+            busquedaIndex.indexarUsuario(usuario);
             log.info("Se actualizaron datos del usuario {}", usuario.getEmail());
         }
 
@@ -1,5 +1,6 @@
 package com.reservatec.service.impl;
 
+import com.reservatec.cache.BusquedaIndex;
 import com.reservatec.entity.Espacio;
 import com.reservatec.repository.EspacioRepository;
 import com.reservatec.service.EspacioService;
@@ -19,6 +20,7 @@ import java.util.List;
 public class EspacioServiceImpl implements EspacioService {
 
     private final EspacioRepository espacioRepository;
+    private final BusquedaIndex busquedaIndex;
 
     /**
      * Retorna todos los espacios registrados, incluyendo inactivos.
@@ -45,7 +47,9 @@ public class EspacioServiceImpl implements EspacioService {
     @Override
     public Espacio guardar(Espacio espacio) {
         espacio.setActivo(true); // comportamiento por defecto
-        return espacioRepository.save(espacio);
+        Espacio guardado = espacioRepository.save(espacio);
+        busquedaIndex.indexarEspacio(guardado);
+        return guardado;
     }
 
     /**
@@ -74,6 +78,8 @@ public class EspacioServiceImpl implements EspacioService {
         if (espacio.getId() == null || !espacioRepository.existsById(espacio.getId())) {
             throw new IllegalArgumentException("No se puede editar: espacio no encontrado con ID: " + espacio.getId());
         }
-        return espacioRepository.save(espacio);
+        Espacio editado = espacioRepository.save(espacio);
+        busquedaIndex.indexarEspacio(editado);
+        return editado;
     }
 }
@@ -0,0 +1,111 @@
+package com.reservatec.service.impl;
+
+import com.reservatec.entity.Horario;
+import com.reservatec.entity.Reserva;
+import com.reservatec.entity.Usuario;
+import com.reservatec.entity.enums.EstadoReserva;
+import com.reservatec.exception.MotivoRechazo;
+import com.reservatec.repository.ReservaRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Evalúa si un usuario puede reservar un horario con dos consultas fijas: las reservas del usuario que
+ * importan para las reglas y todas las reservas del espacio en esa fecha. Las reglas (horario del día
+ * en curso, una reserva vigente, espera de 7 días, ocupación del horario y contigüidad con la misma
+ * carrera) se evalúan en memoria, así que agregar reglas no agrega consultas.
+ */
+@Component
+@RequiredArgsConstructor
+class EvaluadorElegibilidad {
+
+    private static final Set<EstadoReserva> ESTADOS_QUE_OCUPAN =
+            EnumSet.of(EstadoReserva.PENDIENTE, EstadoReserva.ACTIVA, EstadoReserva.CURSO);
+
+    private final ReservaRepository reservaRepository;
+
+    /**
+     * Resultado de la evaluación.
+     *
+     * @param rechazos             motivos incumplidos, en orden de evaluación
+     * @param pendientesDelUsuario reservas PENDIENTE del usuario que la nueva reemplaza
+     * @param reemplazaCancelada   si el horario quedó libre por una reserva cancelada sin asistencia
+     */
+    record Elegibilidad(Set<MotivoRechazo> rechazos, List<Reserva> pendientesDelUsuario, boolean reemplazaCancelada) {
+
+        boolean admitida() {
+            return rechazos.isEmpty();
+        }
+
+        MotivoRechazo primerRechazo() {
+            return rechazos.iterator().next();
+        }
+    }
+
+    Elegibilidad evaluar(Usuario usuario, Long espacioId, Horario horario, LocalDate fecha, LocalDateTime ahora) {
+        LocalDate hoy = ahora.toLocalDate();
+        List<Reserva> delUsuario = reservaRepository.findParaElegibilidad(usuario.getId(), hoy.minusWeeks(1));
+        List<Reserva> delDia = reservaRepository.findByEspacioIdAndFechaConHorarioYUsuario(espacioId, fecha);
+
+        List<Reserva> pendientes = delUsuario.stream()
+                .filter(r -> r.getEstado() == EstadoReserva.PENDIENTE)
+                .toList();
+        Set<Long> reemplazadas = pendientes.stream().map(Reserva::getId).collect(Collectors.toSet());
+
+        // Reservas del mismo horario, sin contar las pendientes del usuario que se van a reemplazar
+        List<Reserva> enHorario = delDia.stream()
+                .filter(r -> r.getHorario().getId().equals(horario.getId()) && !reemplazadas.contains(r.getId()))
+                .toList();
+
+        Set<MotivoRechazo> rechazos = EnumSet.noneOf(MotivoRechazo.class);
+
+        if (fecha.isEqual(hoy) && ahora.isAfter(LocalDateTime.of(fecha, horario.getHoraInicio()))) {
+            if (enHorario.stream().anyMatch(r -> Boolean.TRUE.equals(r.getAsistenciaConfirmada()))) {
+                rechazos.add(MotivoRechazo.HORARIO_CONFIRMADO);
+            } else if (ahora.isAfter(LocalDateTime.of(fecha, horario.getHoraFin()).minusMinutes(30))) {
+                rechazos.add(MotivoRechazo.HORARIO_POR_TERMINAR);
+            }
+        }
+
+        if (delUsuario.stream().anyMatch(r -> r.getEstado() == EstadoReserva.ACTIVA || r.getEstado() == EstadoReserva.CURSO)) {
+            rechazos.add(MotivoRechazo.RESERVA_VIGENTE);
+        }
+
+        if (delUsuario.stream().anyMatch(r -> r.getEstado() == EstadoReserva.COMPLETADA || r.getEstado() == EstadoReserva.CANCELADA)) {
+            rechazos.add(MotivoRechazo.PERIODO_DE_ESPERA);
+        }
+
+        boolean ocupado = enHorario.stream().anyMatch(r -> ESTADOS_QUE_OCUPAN.contains(r.getEstado()));
+        if (ocupado) {
+            rechazos.add(MotivoRechazo.HORARIO_OCUPADO);
+        }
+
+        for (Reserva r : delDia) {
+            boolean compite = Boolean.TRUE.equals(r.getActivo())
+                    && (r.getEstado() == EstadoReserva.ACTIVA || r.getEstado() == EstadoReserva.PENDIENTE)
+                    && !r.getUsuario().getId().equals(usuario.getId())
+                    && r.getUsuario().getCarrera() != null
+                    && r.getUsuario().getCarrera().equalsIgnoreCase(usuario.getCarrera());
+            if (!compite) continue;
+
+            if (horario.getHoraInicio().equals(r.getHorario().getHoraFin())) {
+                rechazos.add(MotivoRechazo.CONTIGUA_DESPUES_MISMA_CARRERA);
+            }
+            if (horario.getHoraFin().equals(r.getHorario().getHoraInicio())) {
+                rechazos.add(MotivoRechazo.CONTIGUA_ANTES_MISMA_CARRERA);
+            }
+        }
+
+        boolean reemplazaCancelada = !ocupado && enHorario.stream().anyMatch(r ->
+                r.getEstado() == EstadoReserva.CANCELADA && !Boolean.TRUE.equals(r.getAsistenciaConfirmada()));
+
+        return new Elegibilidad(rechazos, pendientes, reemplazaCancelada);
+    }
+}
@@ -1,5 +1,7 @@
 package com.reservatec.service.impl;
 
+import com.reservatec.cache.BloqueoIndex;
+import com.reservatec.dto.FechaBloqueadaCalendarioDTO;
 import com.reservatec.entity.FechaBloqueada;
 import com.reservatec.entity.enums.TipoBloqueo;
 import com.reservatec.repository.EspacioRepository;
@@ -25,6 +27,7 @@ public class FechaBloqueadaServiceImpl implements FechaBloqueadaService {
 
     private final FechaBloqueadaRepository fechaBloqueadaRepository;
     private final EspacioRepository espacioRepository;
+    private final BloqueoIndex bloqueoIndex;
     private final WebClient webClient = WebClient.create();
 
     @Value("${api.key}")
@@ -98,6 +101,10 @@ public class FechaBloqueadaServiceImpl implements FechaBloqueadaService {
             }
         }
 
+        if (nuevos > 0) {
+            bloqueoIndex.recargar();
+        }
+
         log.info("✅ Feriados importados correctamente. Nuevos registrados: {}", nuevos);
     }
 
@@ -109,6 +116,24 @@ public class FechaBloqueadaServiceImpl implements FechaBloqueadaService {
         return fechaBloqueadaRepository.findAllByOrderByFechaInicioAsc();
     }
 
+    /**
+     * Lista los bloqueos vigentes que se cruzan con el rango, leídos del índice en memoria.
+     */
+    @Override
+    public List<FechaBloqueadaCalendarioDTO> listarParaCalendario(LocalDate desde, LocalDate hasta) {
+        return bloqueoIndex.listarEntre(desde, hasta).stream()
+                .map(b -> new FechaBloqueadaCalendarioDTO(
+                        b.id(),
+                        b.fechaInicio().toString(),
+                        b.fechaFin().toString(),
+                        b.motivo(),
+                        b.tipoBloqueo().name(),
+                        b.espacioId(),
+                        b.horarioId()
+                ))
+                .toList();
+    }
+
     /**
      * Crea una nueva fecha bloqueada.
      */
@@ -125,7 +150,9 @@ public class FechaBloqueadaServiceImpl implements FechaBloqueadaService {
             dto.setHorario(null);
         }
 
-        return fechaBloqueadaRepository.save(dto);
+        FechaBloqueada creada = fechaBloqueadaRepository.save(dto);
+        bloqueoIndex.recargar();
+        return creada;
     }
 
     /**
@@ -149,7 +176,9 @@ public class FechaBloqueadaServiceImpl implements FechaBloqueadaService {
         actual.setActivo(dto.getActivo());
         actual.setIgnorar(dto.getIgnorar());
 
-        return fechaBloqueadaRepository.save(actual);
+        FechaBloqueada actualizada = fechaBloqueadaRepository.save(actual);
+        bloqueoIndex.recargar();
+        return actualizada;
     }
 
     /**
@@ -160,6 +189,7 @@ public class FechaBloqueadaServiceImpl implements FechaBloqueadaService {
         fechaBloqueadaRepository.findById(id).ifPresent(fecha -> {
             fecha.setActivo(false);
             fechaBloqueadaRepository.save(fecha);
+            bloqueoIndex.recargar();
         });
     }
 
@@ -171,6 +201,8 @@ public class FechaBloqueadaServiceImpl implements FechaBloqueadaService {
         FechaBloqueada fecha = fechaBloqueadaRepository.findById(id)
                 .orElseThrow(() -> new NoSuchElementException("Fecha no encontrada con ID: " + id));
         fecha.setIgnorar(ignorar);
-        return fechaBloqueadaRepository.save(fecha);
+        FechaBloqueada guardada = fechaBloqueadaRepository.save(fecha);
+        bloqueoIndex.recargar();
+        return guardada;
     }
 }
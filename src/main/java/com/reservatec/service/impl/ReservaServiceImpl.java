@@ -1,25 +1,49 @@
 package com.reservatec.service.impl;
 import java.time.DayOfWeek;
+import com.reservatec.cache.BloqueoIndex;
+import com.reservatec.cache.BusquedaIndex;
+import com.reservatec.cache.DisponibilidadCache;
+import com.reservatec.cache.FechasCompletasIndex;
+import com.reservatec.cache.ReservaUsuarioCache;
+import com.reservatec.client.RetencionClient;
+import com.reservatec.config.MetricasReservas;
 import com.reservatec.dto.*;
 import com.reservatec.entity.*;
 import com.reservatec.entity.enums.EstadoReserva;
+import com.reservatec.event.ReservaCambiadaEvent;
+import com.reservatec.exception.MotivoRechazo;
+import com.reservatec.exception.ReservaRechazadaException;
 import com.reservatec.mapper.ReservaMapper;
 import com.reservatec.repository.*;
+import com.reservatec.scheduler.DespachadorNotificaciones;
 import com.reservatec.service.ReservaService;
+import com.reservatec.util.TransaccionUtil;
 import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
 import org.redisson.api.RBucket;
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.*;
 import java.time.format.TextStyle;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+
+import static com.reservatec.util.PaginacionUtil.paginar;
+import static com.reservatec.util.PaginacionUtil.paginarPorIds;
+import static com.reservatec.util.PaginacionUtil.validarLimite;
+import static com.reservatec.util.PaginacionUtil.validarRango;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -30,37 +54,83 @@ public class ReservaServiceImpl implements ReservaService {
     private final HorarioRepository horarioRepository;
     private final EspacioRepository espacioRepository;
     private final RedissonClient redissonClient;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final DespachadorNotificaciones despachadorNotificaciones;
     private final ReservaExpiradaLogRepository reservaExpiradaLogRepository;
-    private final FechaBloqueadaRepository fechaBloqueadaRepository;
+    private final BloqueoIndex bloqueoIndex;
     private final ReservaMapper reservaMapper;
+    private final DisponibilidadCache disponibilidadCache;
+    private final FechasCompletasIndex fechasCompletasIndex;
+    private final BusquedaIndex busquedaIndex;
+    private final RetencionClient retencionClient;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReservaSlotRepository reservaSlotRepository;
+    private final EvaluadorElegibilidad evaluadorElegibilidad;
+    private final ReservaUsuarioCache reservaUsuarioCache;
+    private final MetricasReservas metricas;
+
+    /**
+     * Cómo se evita que dos solicitudes creen a la vez una reserva para el mismo horario:
+     * DISTRIBUIDO con un candado de Redisson por horario; OPTIMISTA reclamando el horario
+     * en la tabla {@code reserva_slots}, cuya clave única hace fallar a los demás.
+     * En OPTIMISTA la creación no usa Redis: la retención temporal es la propia reserva PENDIENTE
+     * a la que apunta el reclamo, y vence {@link #TTL_MINUTOS} después de creada.
+     */
+    enum ModoCreacion { DISTRIBUIDO, OPTIMISTA }
+
+    @Value("${reservas.creacion.modo:DISTRIBUIDO}")
+    private ModoCreacion modoCreacion;
 
     private static final int TTL_MINUTOS = 3;
+    private static final String RESTRICCION_SLOT_VIVO = "uk_reservas_slot_vivo";
+    private static final int MAX_DIAS_DISPONIBILIDAD = 62;
 
     /**
-     * Lista todas las reservas (activas e inactivas).
+     * Lista una página de reservas ordenadas de la más reciente a la más antigua.
+     * Usa el ID como cursor, por lo que el costo no crece con el número de página:
+     * una consulta proyectada a DTO para la página y otra para el total y la posición.
      */
     @Override
-    public List<ReservaResponseDTO> listarTodas() {
-        List<Reserva> reservas = reservaRepository.findAll();
-        return reservas.stream()
-                .map(reservaMapper::toDTO)
-                .toList();
+    @Transactional(readOnly = true)
+    public PaginaDTO<ReservaResponseDTO> listarPagina(FiltroReservaDTO filtro, Long cursor, int limite) {
+        validarLimite(limite);
+        long desdeId = cursor != null ? cursor : Long.MAX_VALUE;
+
+        List<ReservaResponseDTO> contenido = reservaRepository.buscarPagina(
+                        filtro.getEstado(), filtro.getActivo(), filtro.getEspacioId(),
+                        filtro.getDesde(), filtro.getHasta(), desdeId, Limit.of(limite));
+
+        Object[] conteo = reservaRepository.contarPagina(
+                filtro.getEstado(), filtro.getActivo(), filtro.getEspacioId(),
+                filtro.getDesde(), filtro.getHasta(), desdeId).get(0);
+        long total = ((Number) conteo[0]).longValue();
+        long inicio = ((Number) conteo[1]).longValue();
+
+        Long siguienteCursor = inicio + contenido.size() < total && !contenido.isEmpty()
+                ? contenido.get(contenido.size() - 1).getId()
+                : null;
+        return new PaginaDTO<>(contenido, inicio, total, siguienteCursor);
     }
+
     /**
      * Busca reservas por coincidencia parcial en nombre de usuario, código de usuario, nombre del espacio o código de reserva.
+     * Con tres o más caracteres se resuelve en {@link BusquedaIndex} y solo se consulta la base de datos
+     * para la página pedida; con menos, se recurre a la consulta con LIKE.
      *
-     * @param texto texto de búsqueda
-     * @return lista de reservas en formato DTO
+     * @param texto  texto de búsqueda
+     * @param inicio posición del primer resultado
+     * @param limite cantidad máxima de resultados
+     * @return página de reservas en formato DTO
      */
     @Override
-    public List<ReservaResponseDTO> buscarPorTexto(String texto) {
-        return reservaRepository
-                .findByUsuario_NameContainingIgnoreCaseOrUsuario_CodeContainingIgnoreCaseOrEspacio_NombreContainingIgnoreCaseOrCodigoReservaContainingIgnoreCase(
-                        texto, texto, texto, texto
-                ).stream()
-                .map(reservaMapper::toDTO)
-                .toList();
+    public PaginaDTO<ReservaResponseDTO> buscarPorTexto(String texto, int inicio, int limite) {
+        validarRango(inicio, limite);
+
+        if (!busquedaIndex.admite(texto)) {
+            return paginar(reservaRepository.buscarDTOPorTexto(texto.trim()), inicio, limite);
+        }
+
+        return paginarPorIds(busquedaIndex.buscarReservas(texto), inicio, limite,
+                reservaRepository::buscarDTOPorIds, ReservaResponseDTO::getId);
     }
 
     /**
@@ -115,83 +185,78 @@ public class ReservaServiceImpl implements ReservaService {
      * - restricciones por carrera y confirmación previa,
      * - bloqueos del sistema (feriados, Redis, inasistencias, etc.).
      * Solo reserva si no hay conflictos y si el usuario está habilitado.
+     * La exclusión entre solicitudes simultáneas para el mismo horario depende de {@code reservas.creacion.modo}.
      */
     @Override
     @Transactional
     public Reserva crearReservaTemporal(ReservaRequestDTO dto, Usuario usuario, boolean creadoPorAdmin) {
+        Timer.Sample muestra = metricas.iniciar();
+        try {
+            Reserva guardada = crear(dto, usuario, creadoPorAdmin);
+            metricas.creacion(muestra, "creada", null);
+            return guardada;
+        } catch (ReservaRechazadaException e) {
+            metricas.creacion(muestra, "rechazada", e.getMotivo());
+            throw e;
+        } catch (RuntimeException e) {
+            metricas.creacion(muestra, "error", null);
+            throw e;
+        }
+    }
+
+    private Reserva crear(ReservaRequestDTO dto, Usuario usuario, boolean creadoPorAdmin) {
         Long usuarioId = usuario.getId();
         Long espacioId = dto.getEspacioId();
         Long horarioId = dto.getHorarioId();
         LocalDate fecha = dto.getFecha();
 
         if (fecha.getDayOfWeek() == DayOfWeek.SUNDAY) {
-            throw new IllegalArgumentException("No se permiten reservas los días domingo.");
+            throw new ReservaRechazadaException(MotivoRechazo.DIA_NO_PERMITIDO);
         }
 
-        String lockKey = "lock:reserva:" + espacioId + ":" + horarioId + ":" + fecha;
-        RLock lock = redissonClient.getLock(lockKey);
+        boolean optimista = modoCreacion == ModoCreacion.OPTIMISTA;
+        RLock lock = optimista ? null : redissonClient.getLock("lock:reserva:" + espacioId + ":" + horarioId + ":" + fecha);
         boolean locked = false;
 
         try {
-            locked = lock.tryLock(5, 10, TimeUnit.SECONDS);
-            if (!locked) {
-                throw new IllegalStateException("El sistema está procesando otra reserva similar. Intenta nuevamente.");
+            if (optimista) {
+                // El reclamo se mantiene hasta el commit; los demás esperan en la base de datos y fallan
+                if (!reservaSlotRepository.reclamar(espacioId, horarioId, fecha, usuarioId)) {
+                    throw new ReservaRechazadaException(MotivoRechazo.HORARIO_OCUPADO);
+                }
+            } else {
+                long inicioEspera = System.nanoTime();
+                locked = lock.tryLock(5, 10, TimeUnit.SECONDS);
+                metricas.esperaCandado(System.nanoTime() - inicioEspera, locked);
+                if (!locked) {
+                    throw new ReservaRechazadaException(MotivoRechazo.HORARIO_EN_PROCESO);
+                }
             }
 
             // Cargar entidades
             Espacio espacio = espacioRepository.findById(espacioId)
                     .orElseThrow(() -> new IllegalArgumentException("Espacio no encontrado"));
             if (!espacio.getActivo()) {
-                throw new IllegalArgumentException("No se puede reservar un espacio inactivo.");
+                throw new ReservaRechazadaException(MotivoRechazo.ESPACIO_INACTIVO);
             }
 
             Horario horario = horarioRepository.findById(horarioId)
                     .orElseThrow(() -> new IllegalArgumentException("Horario no encontrado"));
 
-            // Validar bloqueos
-            List<Optional<FechaBloqueada>> bloqueos = List.of(
-                    fechaBloqueadaRepository.findFirstByActivoTrueAndIgnorarFalseAndAplicaATodosLosEspaciosTrueAndAplicaATodosLosHorariosTrueAndFechaInicioLessThanEqualAndFechaFinGreaterThanEqual(fecha, fecha),
-                    fechaBloqueadaRepository.findFirstByEspacioAndActivoTrueAndIgnorarFalseAndAplicaATodosLosHorariosTrueAndFechaInicioLessThanEqualAndFechaFinGreaterThanEqual(espacio, fecha, fecha),
-                    fechaBloqueadaRepository.findFirstByHorarioAndActivoTrueAndIgnorarFalseAndAplicaATodosLosEspaciosTrueAndFechaInicioLessThanEqualAndFechaFinGreaterThanEqual(horario, fecha, fecha),
-                    fechaBloqueadaRepository.findFirstByEspacioAndHorarioAndActivoTrueAndIgnorarFalseAndFechaInicioLessThanEqualAndFechaFinGreaterThanEqual(espacio, horario, fecha, fecha)
-            );
-            for (Optional<FechaBloqueada> bloqueo : bloqueos) {
-                bloqueo.ifPresent(b -> {
-                    throw new IllegalArgumentException("No puedes reservar: " + b.getMotivo() + " (" + b.getTipoBloqueo() + ")");
-                });
-            }
-
-            // Validar hora actual vs inicio
-            LocalDate today = LocalDate.now();
-            if (fecha.isEqual(today)) {
-                LocalDateTime ahora = LocalDateTime.now();
-                LocalDateTime inicio = LocalDateTime.of(fecha, horario.getHoraInicio());
-                LocalDateTime fin = LocalDateTime.of(fecha, horario.getHoraFin());
-
-                if (ahora.isAfter(inicio)) {
-                    Optional<Reserva> existente = reservaRepository.findByEspacioIdAndHorarioIdAndFecha(espacioId, horarioId, fecha);
-
-                    if (existente.isPresent()) {
-                        if (Boolean.TRUE.equals(existente.get().getAsistenciaConfirmada())) {
-                            throw new IllegalArgumentException("Este horario ya fue reservado y confirmado.");
-                        }
-                        if (ahora.isAfter(fin.minusMinutes(30))) {
-                            throw new IllegalArgumentException("No puedes reservar en un horario que ya está por terminar.");
-                        }
-                    } else if (ahora.isAfter(fin.minusMinutes(30))) {
-                        throw new IllegalArgumentException("No puedes reservar en un horario que ya está por terminar.");
-                    }
+            // Validar bloqueos (índice en memoria)
+            bloqueoIndex.buscar(espacioId, horarioId, fecha).ifPresent(b -> {
+                throw new ReservaRechazadaException(MotivoRechazo.FECHA_BLOQUEADA, "No puedes reservar: " + b.motivo() + " (" + b.tipoBloqueo() + ")");
+            });
 
-                } else {
-                    Duration tiempoAntes = Duration.between(ahora, LocalDateTime.of(fecha, horario.getHoraInicio()));
-                    if (tiempoAntes.toMinutes() < 0) {
-                        throw new IllegalArgumentException("No se puede reservar en un horario ya iniciado.");
-                    }
-                }
+            // Reglas sobre las reservas del usuario y del espacio en la fecha (dos consultas)
+            EvaluadorElegibilidad.Elegibilidad elegibilidad =
+                    evaluadorElegibilidad.evaluar(usuario, espacioId, horario, fecha, LocalDateTime.now());
+            if (!elegibilidad.admitida()) {
+                throw new ReservaRechazadaException(elegibilidad.primerRechazo());
             }
 
-            // Eliminar reservas pendientes del usuario en misma fecha
-            reservaRepository.findByUsuarioIdAndEstado(usuarioId, EstadoReserva.PENDIENTE).forEach(r -> {
+            // Eliminar reservas pendientes del usuario, que la nueva reemplaza
+            elegibilidad.pendientesDelUsuario().forEach(r -> {
                 reservaExpiradaLogRepository.save(ReservaExpiradaLog.builder()
                         .reservaId(r.getId())
                         .usuarioId(r.getUsuario().getId())
@@ -201,66 +266,22 @@ public class ReservaServiceImpl implements ReservaService {
                         .fechaExpiracion(LocalDateTime.now())
                         .build());
                 reservaRepository.delete(r);
-                redissonClient.getBucket("reserva:" + r.getEspacio().getId() + ":" + r.getHorario().getId() + ":" + r.getFecha()).delete();
-            });
-
-            if (!reservaRepository.findByUsuarioIdAndEstadoInAndActivoTrue(usuarioId, List.of(EstadoReserva.ACTIVA, EstadoReserva.CURSO)).isEmpty()) {
-                throw new IllegalArgumentException("Ya tienes una reserva vigente. No puedes crear otra.");
-            }
-
-            List<Reserva> recientes = reservaRepository.findTopByUsuarioIdAndEstadoInOrderByFechaDesc(usuarioId, List.of(EstadoReserva.COMPLETADA, EstadoReserva.CANCELADA));
-            if (!recientes.isEmpty() && LocalDate.now().isBefore(recientes.get(0).getFecha().plusWeeks(1))) {
-                throw new IllegalArgumentException("Solo puedes reservar nuevamente después de 7 días desde tu última cancelación o reserva completada.");
-            }
-
-            Optional<Reserva> reservaExistente = reservaRepository.findByEspacioIdAndHorarioIdAndFecha(espacioId, horarioId, fecha);
-            if (reservaExistente.isPresent()) {
-                Reserva existente = reservaExistente.get();
-                boolean bloquea = switch (existente.getEstado()) {
-                    case ACTIVA, CURSO, PENDIENTE -> true;
-                    default -> false;
-                };
-
-                boolean fueCanceladaPorNoConfirmar = existente.getEstado() == EstadoReserva.CANCELADA &&
-                        !Boolean.TRUE.equals(existente.getAsistenciaConfirmada());
-
-                if (bloquea && !fueCanceladaPorNoConfirmar) {
-                    throw new IllegalArgumentException("Este espacio ya está siendo reservado en este horario.");
-                }
-            }
-
-            reservaRepository.findByEspacioIdAndFechaAndActivoTrue(espacioId, fecha).forEach(r -> {
-                if ((r.getEstado() == EstadoReserva.ACTIVA || r.getEstado() == EstadoReserva.PENDIENTE)
-                        && !r.getUsuario().getId().equals(usuarioId)) {
-
-                    String carrera1 = r.getUsuario().getCarrera();
-                    String carrera2 = usuario.getCarrera();
-
-                    if (carrera1 != null && carrera1.equalsIgnoreCase(carrera2)) {
-                        LocalTime inicioNueva = horario.getHoraInicio();
-                        LocalTime finNueva = horario.getHoraFin();
-                        LocalTime inicioExistente = r.getHorario().getHoraInicio();
-                        LocalTime finExistente = r.getHorario().getHoraFin();
-
-                        // Bloquea si nueva empieza justo después de otra de la misma carrera
-                        if (inicioNueva.equals(finExistente)) {
-                            throw new IllegalArgumentException("No puedes reservar inmediatamente después de otro alumno de tu misma carrera.");
-                        }
-
-                        // Bloquea si nueva termina justo antes de otra de la misma carrera
-                        if (finNueva.equals(inicioExistente)) {
-                            throw new IllegalArgumentException("No puedes reservar inmediatamente antes de otro alumno de tu misma carrera.");
-                        }
-                    }
+                if (!optimista) {
+                    redissonClient.getBucket(RetencionClient.clave(r.getEspacio().getId(), r.getHorario().getId(), r.getFecha())).delete();
                 }
+                eventPublisher.publishEvent(ReservaCambiadaEvent.eliminada(r));
             });
+            if (!elegibilidad.pendientesDelUsuario().isEmpty()) {
+                // Antes de insertar: la pendiente puede ocupar el mismo horario (uk_reservas_slot_vivo)
+                reservaRepository.flush();
+            }
 
-            String key = "reserva:" + espacioId + ":" + horarioId + ":" + fecha;
-            RBucket<String> bloque = redissonClient.getBucket(key);
-            if (bloque.isExists()) {
+            // En OPTIMISTA el reclamo ya descartó las retenciones de otros usuarios
+            RBucket<String> bloque = optimista ? null : redissonClient.getBucket(RetencionClient.clave(espacioId, horarioId, fecha));
+            if (bloque != null) {
                 String reservandoId = bloque.get();
                 if (reservandoId != null && !reservandoId.equals(usuarioId.toString())) {
-                    throw new IllegalStateException("Este espacio ya está siendo reservado temporalmente.");
+                    throw new ReservaRechazadaException(MotivoRechazo.HORARIO_RETENIDO);
                 }
             }
 
@@ -273,19 +294,29 @@ public class ReservaServiceImpl implements ReservaService {
             nueva.setCreadoPorAdmin(creadoPorAdmin);
             nueva.setCodigoReserva(generarCodigoReserva());
 
-            boolean esReemplazo = reservaExistente.isPresent()
-                    && reservaExistente.get().getEstado() == EstadoReserva.CANCELADA
-                    && !Boolean.TRUE.equals(reservaExistente.get().getAsistenciaConfirmada());
-
-            nueva.setEstado(esReemplazo || creadoPorAdmin ? EstadoReserva.ACTIVA : EstadoReserva.PENDIENTE);
+            nueva.setEstado(elegibilidad.reemplazaCancelada() || creadoPorAdmin ? EstadoReserva.ACTIVA : EstadoReserva.PENDIENTE);
             nueva.setAsistenciaConfirmada(false);
 
-            Reserva guardada = reservaRepository.save(nueva);
+            Reserva guardada;
+            try {
+                guardada = reservaRepository.save(nueva);
+            } catch (DataIntegrityViolationException e) {
+                // Otra reserva viva ganó el mismo espacio, horario y fecha
+                if (violaRestriccion(e, RESTRICCION_SLOT_VIVO)) {
+                    throw new ReservaRechazadaException(MotivoRechazo.HORARIO_OCUPADO);
+                }
+                throw e;
+            }
+
+            if (optimista) {
+                reservaSlotRepository.asignar(espacioId, horarioId, fecha, guardada.getId());
+            }
 
-            if (!creadoPorAdmin) {
+            if (bloque != null && !creadoPorAdmin) {
                 bloque.set(usuarioId.toString(), Duration.ofMinutes(TTL_MINUTOS));
             }
 
+            eventPublisher.publishEvent(ReservaCambiadaEvent.de(guardada));
             notificarCambioReserva(usuarioId);
             return guardada;
 
@@ -299,6 +330,20 @@ public class ReservaServiceImpl implements ReservaService {
         }
     }
 
+    /**
+     * Indica si la excepción proviene de la restricción indicada, según el nombre que reporta Hibernate.
+     * El nombre puede venir calificado con la tabla (MySQL 8: "reservas.uk_...") o el esquema (H2: "public.uk_...").
+     */
+    private static boolean violaRestriccion(DataIntegrityViolationException e, String restriccion) {
+        for (Throwable causa = e; causa != null; causa = causa.getCause()) {
+            if (causa instanceof ConstraintViolationException violacion && violacion.getConstraintName() != null) {
+                String nombre = violacion.getConstraintName();
+                return restriccion.equalsIgnoreCase(nombre.substring(nombre.lastIndexOf('.') + 1));
+            }
+        }
+        return false;
+    }
+
     private String generarCodigoReserva() {
         return UUID.randomUUID().toString().replace("-", "").substring(0, 6).toUpperCase();
     }
@@ -314,6 +359,7 @@ public class ReservaServiceImpl implements ReservaService {
         reservaRepository.findById(id).ifPresent(reserva -> {
             reserva.setActivo(false);
             reservaRepository.save(reserva);
+            eventPublisher.publishEvent(ReservaCambiadaEvent.de(reserva));
             notificarCambioReserva(reserva.getUsuario().getId());
         });
     }
@@ -330,6 +376,21 @@ public class ReservaServiceImpl implements ReservaService {
     @Override
     @Transactional
     public Reserva confirmarReserva(Long reservaId) {
+        Timer.Sample muestra = metricas.iniciar();
+        try {
+            Reserva confirmada = confirmar(reservaId);
+            metricas.confirmacion(muestra, "confirmada");
+            return confirmada;
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            metricas.confirmacion(muestra, "rechazada");
+            throw e;
+        } catch (RuntimeException e) {
+            metricas.confirmacion(muestra, "error");
+            throw e;
+        }
+    }
+
+    private Reserva confirmar(Long reservaId) {
         Reserva reserva = reservaRepository.findById(reservaId)
                 .orElseThrow(() -> new IllegalArgumentException("Reserva no encontrada"));
 
@@ -348,16 +409,25 @@ public class ReservaServiceImpl implements ReservaService {
             throw new IllegalStateException("Solo puedes reservar nuevamente después de 7 días desde tu última reserva completada.");
         }
 
-        // Validar TTL en Redis
-        String key = "reserva:" + reserva.getEspacio().getId() + ":" + reserva.getHorario().getId() + ":" + fecha;
-        RBucket<String> redisReserva = redissonClient.getBucket(key);
-        if (!redisReserva.isExists()) {
-            throw new IllegalStateException("El tiempo para confirmar expiró.");
+        // Validar la retención: en Redis, o por la antigüedad de la reserva en el modo OPTIMISTA
+        RBucket<String> redisReserva = null;
+        if (modoCreacion == ModoCreacion.OPTIMISTA) {
+            if (reserva.getFechaCreacion().plusMinutes(TTL_MINUTOS).isBefore(LocalDateTime.now())) {
+                throw new IllegalStateException("El tiempo para confirmar expiró.");
+            }
+        } else {
+            redisReserva = redissonClient.getBucket(RetencionClient.clave(reserva.getEspacio().getId(), reserva.getHorario().getId(), fecha));
+            if (!redisReserva.isExists()) {
+                throw new IllegalStateException("El tiempo para confirmar expiró.");
+            }
         }
 
         reserva.setEstado(EstadoReserva.ACTIVA);
         reservaRepository.save(reserva);
-        redisReserva.delete();
+        if (redisReserva != null) {
+            redisReserva.delete();
+        }
+        eventPublisher.publishEvent(ReservaCambiadaEvent.de(reserva));
 
         notificarCambioReserva(usuarioId);
         return reserva;
@@ -385,10 +455,11 @@ public class ReservaServiceImpl implements ReservaService {
 
         reserva.setEstado(EstadoReserva.CANCELADA);
         reservaRepository.save(reserva);
+        eventPublisher.publishEvent(ReservaCambiadaEvent.de(reserva));
 
         Long usuarioId = reserva.getUsuario().getId();
         notificarCambioReserva(usuarioId);
-        messagingTemplate.convertAndSend("/topic/reservas/" + usuarioId, "cronometro");
+        despachadorNotificaciones.encolar("/topic/reservas/" + usuarioId, "cronometro");
 
         return reserva;
     }
@@ -403,30 +474,33 @@ public class ReservaServiceImpl implements ReservaService {
         reservaRepository.findById(id).ifPresent(reserva -> {
             reserva.setActivo(false);
             reservaRepository.save(reserva);
+            eventPublisher.publishEvent(ReservaCambiadaEvent.de(reserva));
 
-            Long usuarioId = reserva.getUsuario().getId();
-            messagingTemplate.convertAndSend("/topic/reservas/" + usuarioId, "actualizar");
+            notificarCambioReserva(reserva.getUsuario().getId());
         });
     }
 
     /**
-     * Lista todas las reservas activas visibles de un usuario.
+     * Lista todas las reservas activas visibles de un usuario, desde {@link ReservaUsuarioCache}.
      *
      * @param usuarioId ID del usuario
      * @return lista de reservas activas en estados permitidos
      */
     @Override
-    public List<Reserva> listarPorUsuario(Long usuarioId) {
+    public List<ReservaResponseDTO> listarPorUsuario(Long usuarioId) {
         if (usuarioId == null) return Collections.emptyList();
+        return reservaUsuarioCache.obtenerReservas(usuarioId);
+    }
 
-        List<EstadoReserva> estadosVisibles = List.of(
-                EstadoReserva.ACTIVA,
-                EstadoReserva.CURSO,
-                EstadoReserva.COMPLETADA,
-                EstadoReserva.CANCELADA
-        );
-
-        return reservaRepository.findByUsuarioIdAndEstadoInAndActivoTrue(usuarioId, estadosVisibles);
+    /**
+     * Obtiene una reserva en formato DTO con una sola consulta.
+     *
+     * @param id ID de la reserva
+     * @return DTO de la reserva o null si no se encuentra
+     */
+    @Override
+    public ReservaResponseDTO obtenerDTO(Long id) {
+        return reservaRepository.buscarDTOPorId(id).orElse(null);
     }
 
     /**
@@ -441,102 +515,101 @@ public class ReservaServiceImpl implements ReservaService {
     }
 
     /**
-     * Tarea programada que se ejecuta cada 20 segundos para liberar reservas
-     * en estado PENDIENTE cuyo TTL en Redis ha expirado.
+     * Elimina a diario los reclamos de horario de fechas pasadas.
+     */
+    @Override
+    @Scheduled(cron = "0 10 0 * * *")
+    public void purgarReclamosPasados() {
+        int eliminados = reservaSlotRepository.eliminarAnterioresA(LocalDate.now());
+        metricas.pasada("purgar-reclamos", eliminados);
+        if (eliminados > 0) {
+            log.info("Reclamos de horario pasados eliminados: {}", eliminados);
+        }
+    }
+
+    /**
+     * Barrido de reconciliación que se ejecuta cada 60 segundos.
+     * La liberación normal ocurre por {@link #expirarReservaTemporal}; aquí solo se revisan
+     * las reservas PENDIENTE cuyo TTL ya debió vencer, por si se perdió algún evento de Redis.
+     * Todas las retenciones se consultan en un único MGET y las vencidas se expiran en bloque.
+     * En el modo OPTIMISTA no hay retenciones en Redis: toda reserva PENDIENTE más antigua que el TTL venció,
+     * por lo que este barrido es el que las libera (con hasta un minuto de retraso).
      */
     @Override
     @Scheduled(fixedRate = 60000)
+    @Transactional
     public void liberarReservasNoConfirmadas() {
-        List<Reserva> pendientes = reservaRepository.findByEstado(EstadoReserva.PENDIENTE);
+        List<Reserva> pendientes = reservaRepository.findByEstadoAndFechaCreacionBefore(
+                EstadoReserva.PENDIENTE, LocalDateTime.now().minusMinutes(TTL_MINUTOS));
+        metricas.pasada("liberar-no-confirmadas", pendientes.size());
+        if (pendientes.isEmpty()) return;
+
+        Map<String, String> retenciones = modoCreacion == ModoCreacion.OPTIMISTA ? Map.of() : retencionClient.obtener(pendientes.stream()
+                .map(r -> RetencionClient.clave(r.getEspacio().getId(), r.getHorario().getId(), r.getFecha()))
+                .collect(Collectors.toSet()));
+
+        expirar(pendientes.stream()
+                .filter(r -> !retenciones.containsKey(
+                        RetencionClient.clave(r.getEspacio().getId(), r.getHorario().getId(), r.getFecha())))
+                .map(Reserva::getId)
+                .toList());
+    }
 
-        for (Reserva r : pendientes) {
-            String key = "reserva:" + r.getEspacio().getId() + ":" + r.getHorario().getId() + ":" + r.getFecha();
-            RBucket<String> redisReserva = redissonClient.getBucket(key);
+    /**
+     * Libera las reservas PENDIENTE de un horario al recibir la expiración de su clave en Redis
+     * y publica el horario como libre a quienes ven ese día.
+     * Si la retención volvió a crearse entretanto, no hace nada.
+     */
+    @Override
+    @Transactional
+    public void expirarReservaTemporal(Long espacioId, Long horarioId, LocalDate fecha) {
+        if (redissonClient.getBucket(RetencionClient.clave(espacioId, horarioId, fecha)).isExists()) return;
 
-            if (!redisReserva.isExists()) {
-                // 1. Registrar log de expiración (usa otro nombre para evitar conflicto con log de @Slf4j)
-                ReservaExpiradaLog logReserva = ReservaExpiradaLog.builder()
-                        .reservaId(r.getId())
-                        .usuarioId(r.getUsuario().getId())
-                        .espacioId(r.getEspacio().getId())
-                        .horarioId(r.getHorario().getId())
-                        .fecha(r.getFecha())
-                        .fechaExpiracion(LocalDateTime.now())
-                        .build();
-                reservaExpiradaLogRepository.save(logReserva);
+        expirar(reservaRepository.findByEspacioIdAndHorarioIdAndFechaAndEstado(espacioId, horarioId, fecha, EstadoReserva.PENDIENTE)
+                .stream().map(Reserva::getId).toList());
+        disponibilidadCache.alExpirarRetencion(espacioId, horarioId, fecha);
+    }
 
-                // 2. Eliminar la reserva
-                reservaRepository.delete(r);
+    /**
+     * Registra el log de expiración y elimina en bloque las reservas que sigan PENDIENTE.
+     * Las filas se bloquean primero para que una confirmación concurrente no se pierda;
+     * las notificaciones al frontend se envían una vez por usuario tras el commit.
+     */
+    private void expirar(List<Long> reservaIds) {
+        if (reservaIds.isEmpty()) return;
 
-                // 3. Notificar al frontend
-                notificarCambioReserva(r.getUsuario().getId());
-                log.info("🗑️ Reserva expirada y eliminada: ID {}", r.getId());
-            }
-        }
+        List<Reserva> expiradas = reservaRepository.findAllByIdParaActualizar(reservaIds).stream()
+                .filter(r -> r.getEstado() == EstadoReserva.PENDIENTE)
+                .toList();
+        if (expiradas.isEmpty()) return;
+
+        List<Long> ids = expiradas.stream().map(Reserva::getId).toList();
+        reservaExpiradaLogRepository.registrarExpiradas(ids, LocalDateTime.now());
+        reservaRepository.eliminarPendientes(ids);
+        expiradas.forEach(r -> eventPublisher.publishEvent(ReservaCambiadaEvent.eliminada(r)));
+
+        Set<Long> usuarios = expiradas.stream().map(r -> r.getUsuario().getId()).collect(Collectors.toSet());
+        TransaccionUtil.despuesDelCommit(() -> usuarios.forEach(this::notificarCambioReserva));
+        log.info("🗑️ {} reservas expiradas y eliminadas: {}", ids.size(), ids);
     }
 
     /**
      * Envía una notificación al usuario por WebSocket para actualizar sus reservas.
+     * Se encola en {@link DespachadorNotificaciones}, que la envía tras el commit y una sola vez por ventana.
      *
      * @param usuarioId ID del usuario a notificar
      */
     @Override
     public void notificarCambioReserva(Long usuarioId) {
         if (usuarioId != null) {
-            messagingTemplate.convertAndSend("/topic/reservas/" + usuarioId, "actualizar");
-        }
-    }
-
-    /**
-     * Tarea programada que actualiza los estados de reservas automáticamente.
-     * - ACTIVA → CURSO si está en el horario actual.
-     * - CURSO → COMPLETADA si ya terminó.
-     * Se ejecuta cada 10 segundos para sincronizar con el cronómetro del frontend.
-     */
-    @Scheduled(fixedRate = 10000)
-    @Transactional
-    public void actualizarEstadosReservas() {
-        List<Reserva> reservas = reservaRepository.findByEstadoIn(List.of(EstadoReserva.ACTIVA, EstadoReserva.CURSO));
-        LocalDateTime ahora = LocalDateTime.now();
-
-        for (Reserva r : reservas) {
-            LocalDateTime inicio = LocalDateTime.of(r.getFecha(), r.getHorario().getHoraInicio());
-            LocalDateTime fin = LocalDateTime.of(r.getFecha(), r.getHorario().getHoraFin());
-            Long usuarioId = r.getUsuario().getId();
-
-            if (fin.isBefore(ahora) && r.getEstado() == EstadoReserva.CURSO) {
-                // Finaliza la reserva
-                r.setEstado(EstadoReserva.COMPLETADA);
-                reservaRepository.save(r);
-
-                messagingTemplate.convertAndSend("/topic/cronometro/" + usuarioId, Map.of(
-                        "estado", "COMPLETADA",
-                        "mensaje", "Reserva finalizada",
-                        "segundos", 0
-                ));
-                notificarCambioReserva(usuarioId);
-                log.info("Reserva COMPLETADA: ID {}", r.getId());
-
-            } else if (!ahora.isBefore(inicio) && !ahora.isAfter(fin) && r.getEstado() == EstadoReserva.ACTIVA) {
-                // Inicia la reserva
-                r.setEstado(EstadoReserva.CURSO);
-                reservaRepository.save(r);
-
-                Duration transcurrido = Duration.between(inicio, ahora);
-                messagingTemplate.convertAndSend("/topic/cronometro/" + usuarioId, Map.of(
-                        "estado", "CURSO",
-                        "mensaje", "Reserva en curso",
-                        "segundos", transcurrido.getSeconds()
-                ));
-                notificarCambioReserva(usuarioId);
-                log.info("⏳ Reserva en CURSO: ID {}", r.getId());
-            }
+            despachadorNotificaciones.encolar("/topic/reservas/" + usuarioId, "actualizar");
         }
     }
 
     /**
      * Devuelve el estado actual del cronómetro de reservas para el usuario autenticado.
      * Informa si tiene una reserva próxima, en curso o ya finalizada.
+     * La reserva se lee de {@link ReservaUsuarioCache}; solo los segundos se calculan en cada llamada.
      *
      * @param usuarioId ID del usuario
      * @return mapa con estado ("ACTIVA", "CURSO", "COMPLETADA", "NINGUNA"), mensaje y segundos
@@ -547,35 +620,26 @@ public class ReservaServiceImpl implements ReservaService {
             return Map.of("estado", "NINGUNA", "mensaje", "Usuario inválido", "segundos", 0);
         }
 
-        List<Reserva> reservas = reservaRepository.findByUsuarioId(usuarioId);
-        if (reservas == null || reservas.isEmpty()) {
-            return Map.of("estado", "NINGUNA", "mensaje", "No tienes reservas activas", "segundos", 0);
-        }
-
-        List<Reserva> activas = reservas.stream()
-                .filter(r -> r.getEstado() == EstadoReserva.ACTIVA || r.getEstado() == EstadoReserva.CURSO)
-                .sorted(Comparator.comparing(r -> LocalDateTime.of(r.getFecha(), r.getHorario().getHoraInicio())))
-                .toList();
-
-        if (activas.isEmpty()) {
+        Optional<ReservaUsuarioCache.Actual> actual = reservaUsuarioCache.obtenerActual(usuarioId);
+        if (actual.isEmpty()) {
             return Map.of("estado", "NINGUNA", "mensaje", "No tienes reservas activas", "segundos", 0);
         }
 
-        Reserva proxima = activas.get(0);
+        ReservaUsuarioCache.Actual proxima = actual.get();
         LocalDateTime ahora = LocalDateTime.now();
-        LocalDateTime inicio = LocalDateTime.of(proxima.getFecha(), proxima.getHorario().getHoraInicio());
-        LocalDateTime fin = LocalDateTime.of(proxima.getFecha(), proxima.getHorario().getHoraFin());
+        LocalDateTime inicio = proxima.inicio();
+        LocalDateTime fin = proxima.fin();
 
-        if (proxima.getEstado() == EstadoReserva.CURSO && ahora.isAfter(fin)) {
+        if (proxima.estado() == EstadoReserva.CURSO && ahora.isAfter(fin)) {
             return Map.of("estado", "COMPLETADA", "mensaje", "Reserva finalizada", "segundos", 0);
         }
 
-        if (proxima.getEstado() == EstadoReserva.CURSO) {
+        if (proxima.estado() == EstadoReserva.CURSO) {
             long transcurrido = Duration.between(inicio, ahora).getSeconds();
             return Map.of("estado", "CURSO", "mensaje", "Reserva en curso", "segundos", transcurrido);
         }
 
-        if (proxima.getEstado() == EstadoReserva.ACTIVA) {
+        if (proxima.estado() == EstadoReserva.ACTIVA) {
             long restante = Math.max(0, Duration.between(ahora, inicio).getSeconds());
             return Map.of("estado", "ACTIVA", "mensaje", "Tu próxima reserva empieza en...", "segundos", restante);
         }
@@ -587,6 +651,7 @@ public class ReservaServiceImpl implements ReservaService {
     /**
      * Devuelve la lista de IDs de horarios ocupados en una fecha y espacio específicos,
      * tomando en cuenta reservas activas, en curso, pendientes y confirmadas, así como Redis TTL.
+     * Se responde desde el índice en memoria {@link DisponibilidadCache}.
      *
      * @param espacioId         ID del espacio
      * @param fecha             fecha a consultar
@@ -595,69 +660,57 @@ public class ReservaServiceImpl implements ReservaService {
      */
     @Override
     public List<Long> obtenerHorariosOcupados(Long espacioId, LocalDate fecha, Long usuarioIdActual) {
-        Set<Long> horariosOcupados = new HashSet<>();
-
-        // 1. Por reservas en base de datos
-        List<Reserva> reservas = reservaRepository.findByEspacioIdAndFechaAndActivoTrue(espacioId, fecha);
-        for (Reserva r : reservas) {
-            Long idHorario = r.getHorario().getId();
-            boolean esOtroUsuario = !r.getUsuario().getId().equals(usuarioIdActual);
-
-            if (esOtroUsuario) {
-                switch (r.getEstado()) {
-                    case PENDIENTE, ACTIVA, CURSO -> horariosOcupados.add(idHorario);
-                    case CANCELADA -> {
-                        if (Boolean.TRUE.equals(r.getAsistenciaConfirmada())) {
-                            horariosOcupados.add(idHorario);
-                        }
-                    }
-                }
-            }
+        return disponibilidadCache.obtenerOcupados(espacioId, fecha, usuarioIdActual);
+    }
 
-            // También bloquear si es propia pero confirmada y activa/curso
-            if ((r.getEstado() == EstadoReserva.ACTIVA || r.getEstado() == EstadoReserva.CURSO)
-                    && Boolean.TRUE.equals(r.getAsistenciaConfirmada())) {
-                horariosOcupados.add(idHorario);
-            }
+    /**
+     * Arma la matriz de disponibilidad de un rango de días.
+     * Las reservas y retenciones salen de {@link DisponibilidadCache} (una consulta y un MGET
+     * para los días que no estén cargados) y los bloqueos de {@link BloqueoIndex}.
+     */
+    @Override
+    public DisponibilidadRangoDTO obtenerDisponibilidad(Long espacioId, LocalDate desde, LocalDate hasta, Long usuarioIdActual) {
+        if (hasta.isBefore(desde)) {
+            throw new IllegalArgumentException("La fecha final no puede ser anterior a la inicial.");
+        }
+        if (ChronoUnit.DAYS.between(desde, hasta) >= MAX_DIAS_DISPONIBILIDAD) {
+            throw new IllegalArgumentException("El rango no puede superar " + MAX_DIAS_DISPONIBILIDAD + " días.");
         }
 
-        // 2. Por TTL en Redis (reservas en proceso de confirmación)
-        List<Horario> todosHorarios = horarioRepository.findAll();
-        for (Horario h : todosHorarios) {
-            String key = "reserva:" + espacioId + ":" + h.getId() + ":" + fecha;
-            RBucket<String> bucket = redissonClient.getBucket(key);
-            if (bucket.isExists()) {
-                String reservandoId = bucket.get();
-                if (reservandoId != null && !reservandoId.equals(usuarioIdActual.toString())) {
-                    horariosOcupados.add(h.getId());
+        List<Horario> horarios = horarioRepository.findByActivoTrue().stream()
+                .sorted(Comparator.comparing(Horario::getHoraInicio))
+                .toList();
+        Map<LocalDate, Map<Long, DisponibilidadCache.Estado>> ocupados =
+                disponibilidadCache.obtenerRango(espacioId, desde, hasta, usuarioIdActual);
+
+        Map<String, String> dias = new LinkedHashMap<>();
+        ocupados.forEach((fecha, estados) -> {
+            StringBuilder fila = new StringBuilder(horarios.size());
+            for (Horario h : horarios) {
+                if (bloqueoIndex.buscar(espacioId, h.getId(), fecha).isPresent()) {
+                    fila.append('B');
+                } else {
+                    DisponibilidadCache.Estado estado = estados.get(h.getId());
+                    fila.append(estado == null ? 'L' : estado == DisponibilidadCache.Estado.RETENIDO ? 'R' : 'O');
                 }
             }
-        }
+            dias.put(fecha.toString(), fila.toString());
+        });
 
-        return new ArrayList<>(horariosOcupados);
+        return new DisponibilidadRangoDTO(espacioId, horarios.stream().map(Horario::getId).toList(), dias);
     }
 
     /**
-     * Devuelve las fechas donde ya no hay horarios disponibles en el espacio.
-     * Considera como ocupados los horarios en estado PENDIENTE o ACTIVA.
+     * Devuelve las fechas futuras donde ya no hay horarios activos disponibles en el espacio.
+     * Considera ocupados los horarios con reservas PENDIENTE, ACTIVA o EN CURSO y los bloqueados;
+     * se responde desde los contadores de {@link FechasCompletasIndex}.
      *
      * @param espacioId ID del espacio
      * @return lista de fechas con todos los horarios ocupados
      */
     @Override
     public List<LocalDate> obtenerFechasCompletas(Long espacioId) {
-        List<Reserva> reservas = reservaRepository.findByEspacioIdAndActivoTrue(espacioId);
-
-        Map<LocalDate, Long> conteoPorFecha = reservas.stream()
-                .filter(r -> r.getEstado() == EstadoReserva.PENDIENTE || r.getEstado() == EstadoReserva.ACTIVA)
-                .collect(Collectors.groupingBy(Reserva::getFecha, Collectors.counting()));
-
-        long totalHorarios = horarioRepository.count(); // asumimos todos los horarios aplican
-
-        return conteoPorFecha.entrySet().stream()
-                .filter(e -> e.getValue() >= totalHorarios)
-                .map(Map.Entry::getKey)
-                .toList();
+        return fechasCompletasIndex.obtener(espacioId);
     }
 
     /**
@@ -678,11 +731,10 @@ public class ReservaServiceImpl implements ReservaService {
 
             // Eliminar reserva
             reservaRepository.delete(reserva);
+            eventPublisher.publishEvent(ReservaCambiadaEvent.eliminada(reserva));
 
             // Eliminar TTL de Redis si el usuario coincide
-            String key = "reserva:" + reserva.getEspacio().getId()
-                    + ":" + reserva.getHorario().getId()
-                    + ":" + reserva.getFecha();
+            String key = RetencionClient.clave(reserva.getEspacio().getId(), reserva.getHorario().getId(), reserva.getFecha());
 
             RBucket<String> bucket = redissonClient.getBucket(key);
             String valor = bucket.get();
@@ -727,43 +779,12 @@ public class ReservaServiceImpl implements ReservaService {
 
 
         reserva.setAsistenciaConfirmada(true);
-        return reservaRepository.save(reserva);
+        Reserva guardada = reservaRepository.save(reserva);
+        eventPublisher.publishEvent(ReservaCambiadaEvent.de(guardada));
+        return guardada;
     }
 
 
-    /**
-     * Tarea programada que verifica reservas sin asistencia confirmada y las cancela automáticamente
-     * si han pasado más de 10 minutos desde su inicio.
-     */
-    @Scheduled(fixedRate = 30000)
-    @Transactional
-    public void verificarInasistencias() {
-        List<Reserva> reservas = reservaRepository.findByEstadoIn(
-                List.of(EstadoReserva.ACTIVA, EstadoReserva.CURSO)
-        );
-
-        LocalDateTime ahora = LocalDateTime.now();
-
-        for (Reserva r : reservas) {
-            if (Boolean.TRUE.equals(r.getAsistenciaConfirmada())) continue;
-
-            LocalDateTime inicio = LocalDateTime.of(r.getFecha(), r.getHorario().getHoraInicio());
-
-            // ⏳ Solo cancelar si pasaron más de 10 minutos desde el inicio Y
-            // la reserva fue creada hace más de 10 minutos (darle sus 10 min completos).
-            long segundosDesdeInicio = Duration.between(inicio, ahora).getSeconds();
-            long segundosDesdeCreacion = Duration.between(r.getFechaCreacion(), ahora).getSeconds();
-
-            if (segundosDesdeInicio > 600 && segundosDesdeCreacion > 600) {
-                r.setEstado(EstadoReserva.CANCELADA);
-                reservaRepository.save(r);
-                notificarCambioReserva(r.getUsuario().getId());
-                log.info("Reserva CANCELADA por inasistencia: ID {}", r.getId());
-            }
-
-        }
-    }
-
     /**
      * Calcula la cantidad total de horas reservadas por día (lunes a viernes) para cada deporte.
      *
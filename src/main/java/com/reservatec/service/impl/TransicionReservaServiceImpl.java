@@ -0,0 +1,162 @@
+package com.reservatec.service.impl;
+
+import com.reservatec.entity.Reserva;
+import com.reservatec.entity.enums.EstadoReserva;
+import com.reservatec.event.ReservaCambiadaEvent;
+import com.reservatec.repository.HorarioRepository;
+import com.reservatec.repository.ReservaRepository;
+import com.reservatec.scheduler.CronometroEmisor;
+import com.reservatec.service.ReservaService;
+import com.reservatec.service.TransicionReservaService;
+import com.reservatec.util.TransaccionUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Implementación de las transiciones automáticas de reservas.
+ * Solo procesa las reservas que el temporizador marca como vencidas y vuelve a validar
+ * cada condición contra la base de datos, ya que el estado pudo cambiar entretanto.
+ * Cada lote se aplica con una actualización masiva por estado destino.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransicionReservaServiceImpl implements TransicionReservaService {
+
+    private final ReservaRepository reservaRepository;
+    private final HorarioRepository horarioRepository;
+    private final ReservaService reservaService;
+    private final CronometroEmisor cronometroEmisor;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * ACTIVA → CURSO si está en el horario actual.
+     */
+    @Override
+    @Transactional
+    public void iniciar(Collection<Long> reservaIds) {
+        LocalDateTime ahora = LocalDateTime.now();
+
+        List<Reserva> iniciadas = bloquear(reservaIds).stream()
+                .filter(r -> r.getEstado() == EstadoReserva.ACTIVA)
+                .filter(r -> !ahora.isBefore(inicio(r)) && !ahora.isAfter(fin(r)))
+                .toList();
+
+        List<Mensaje> mensajes = iniciadas.stream()
+                .map(r -> new Mensaje(r.getUsuario().getId(), Map.of(
+                        "estado", "CURSO",
+                        "mensaje", "Reserva en curso",
+                        "segundos", Duration.between(inicio(r), ahora).getSeconds()
+                )))
+                .toList();
+
+        aplicar(iniciadas, EstadoReserva.CURSO, ahora, mensajes);
+    }
+
+    /**
+     * CURSO → COMPLETADA si ya terminó.
+     */
+    @Override
+    @Transactional
+    public void finalizar(Collection<Long> reservaIds) {
+        LocalDateTime ahora = LocalDateTime.now();
+
+        List<Reserva> completadas = bloquear(reservaIds).stream()
+                .filter(r -> r.getEstado() == EstadoReserva.CURSO && fin(r).isBefore(ahora))
+                .toList();
+
+        List<Mensaje> mensajes = completadas.stream()
+                .map(r -> new Mensaje(r.getUsuario().getId(), Map.of(
+                        "estado", "COMPLETADA",
+                        "mensaje", "Reserva finalizada",
+                        "segundos", 0
+                )))
+                .toList();
+
+        aplicar(completadas, EstadoReserva.COMPLETADA, ahora, mensajes);
+    }
+
+    /**
+     * Cancela las reservas sin asistencia confirmada si pasaron más de 10 minutos desde su inicio
+     * y la reserva fue creada hace más de 10 minutos (darle sus 10 min completos).
+     */
+    @Override
+    @Transactional
+    public Map<Long, LocalDateTime> cancelarInasistencias(Collection<Long> reservaIds) {
+        LocalDateTime ahora = LocalDateTime.now();
+        Map<Long, LocalDateTime> aplazadas = new HashMap<>();
+        List<Reserva> canceladas = new ArrayList<>();
+
+        for (Reserva r : bloquear(reservaIds)) {
+            boolean vigente = r.getEstado() == EstadoReserva.ACTIVA || r.getEstado() == EstadoReserva.CURSO;
+            if (!vigente || Boolean.TRUE.equals(r.getAsistenciaConfirmada())) continue;
+
+            LocalDateTime inicio = inicio(r);
+            long segundosDesdeInicio = Duration.between(inicio, ahora).getSeconds();
+            long segundosDesdeCreacion = Duration.between(r.getFechaCreacion(), ahora).getSeconds();
+
+            if (segundosDesdeInicio > TOLERANCIA_ASISTENCIA_SEGUNDOS && segundosDesdeCreacion > TOLERANCIA_ASISTENCIA_SEGUNDOS) {
+                canceladas.add(r);
+            } else {
+                LocalDateTime limiteInicio = inicio.plusSeconds(TOLERANCIA_ASISTENCIA_SEGUNDOS + 1);
+                LocalDateTime limiteCreacion = r.getFechaCreacion().plusSeconds(TOLERANCIA_ASISTENCIA_SEGUNDOS + 1);
+                aplazadas.put(r.getId(), limiteInicio.isAfter(limiteCreacion) ? limiteInicio : limiteCreacion);
+            }
+        }
+
+        aplicar(canceladas, EstadoReserva.CANCELADA, ahora, List.of());
+        return aplazadas;
+    }
+
+    /**
+     * Bloquea las reservas hasta el commit y deja sus horarios en el contexto de persistencia,
+     * de modo que validar un lote completo cuesta dos consultas sin importar su tamaño.
+     */
+    private List<Reserva> bloquear(Collection<Long> reservaIds) {
+        List<Reserva> reservas = reservaRepository.findAllByIdParaActualizar(reservaIds);
+        horarioRepository.findAllById(reservas.stream().map(r -> r.getHorario().getId()).collect(Collectors.toSet()));
+        return reservas;
+    }
+
+    /**
+     * Aplica el nuevo estado con un único UPDATE y publica los eventos de cada reserva.
+     * Los frames de cronómetro se encolan en {@link CronometroEmisor} y las notificaciones (una por usuario)
+     * se envían tras el commit.
+     */
+    private void aplicar(List<Reserva> reservas, EstadoReserva estado, LocalDateTime ahora, List<Mensaje> mensajes) {
+        if (reservas.isEmpty()) return;
+
+        reservaRepository.actualizarEstado(ids(reservas), estado, ahora);
+        reservas.forEach(r -> eventPublisher.publishEvent(ReservaCambiadaEvent.de(r, estado)));
+
+        Set<Long> usuarios = reservas.stream().map(r -> r.getUsuario().getId()).collect(Collectors.toSet());
+        TransaccionUtil.despuesDelCommit(() -> {
+            mensajes.forEach(m -> cronometroEmisor.emitir(m.usuarioId(), m.cuerpo()));
+            usuarios.forEach(reservaService::notificarCambioReserva);
+        });
+        log.info("⏳ {} reservas pasaron a {}: {}", reservas.size(), estado, ids(reservas));
+    }
+
+    private static LocalDateTime inicio(Reserva r) {
+        return LocalDateTime.of(r.getFecha(), r.getHorario().getHoraInicio());
+    }
+
+    private static LocalDateTime fin(Reserva r) {
+        return LocalDateTime.of(r.getFecha(), r.getHorario().getHoraFin());
+    }
+
+    private static List<Long> ids(List<Reserva> reservas) {
+        return reservas.stream().map(Reserva::getId).toList();
+    }
+
+    private record Mensaje(Long usuarioId, Map<String, Object> cuerpo) {
+    }
+}
@@ -1,6 +1,8 @@
 package com.reservatec.service.impl;
 
+import com.reservatec.cache.BusquedaIndex;
 import com.reservatec.client.UsuarioClient;
+import com.reservatec.dto.PaginaDTO;
 import com.reservatec.dto.UsuarioRemotoDTO;
 import com.reservatec.entity.Usuario;
 import com.reservatec.repository.UsuarioRepository;
@@ -12,6 +14,10 @@ import org.springframework.stereotype.Service;
 import java.util.List;
 import java.util.Optional;
 
+import static com.reservatec.util.PaginacionUtil.paginar;
+import static com.reservatec.util.PaginacionUtil.paginarPorIds;
+import static com.reservatec.util.PaginacionUtil.validarRango;
+
 /**
  * Implementación del servicio para la gestión de usuarios.
  * Incluye sincronización externa, búsquedas y control de estado activo.
@@ -23,6 +29,7 @@ public class UsuarioServiceImpl implements UsuarioService {
 
     private final UsuarioRepository usuarioRepository;
     private final UsuarioClient usuarioClient;
+    private final BusquedaIndex busquedaIndex;
 
     /**
      * Guarda o actualiza un usuario en la base de datos, forzando su estado a activo.
@@ -30,7 +37,7 @@ public class UsuarioServiceImpl implements UsuarioService {
     @Override
     public void guardar(Usuario usuario) {
         usuario.setActivo(true); // seguridad: evita insertar inactivos por error
-        usuarioRepository.save(usuario);
+        busquedaIndex.indexarUsuario(usuarioRepository.save(usuario));
     }
 
     /**
@@ -42,16 +49,28 @@ public class UsuarioServiceImpl implements UsuarioService {
                 .orElseThrow(() -> new RuntimeException("Usuario no encontrado con código: " + code));
 
         usuario.setActivo(false);
-        return usuarioRepository.save(usuario);
+        Usuario actualizado = usuarioRepository.save(usuario);
+        busquedaIndex.indexarUsuario(actualizado);
+        return actualizado;
     }
 
     /**
-     * Busca usuarios por nombre, código o correo (insensible a mayúsculas).
+     * Busca usuarios por nombre, código o correo (insensible a mayúsculas y acentos).
+     * Con tres o más caracteres se resuelve en {@link BusquedaIndex}, ordenado por relevancia,
+     * y solo se cargan los usuarios de la página; con menos, se recurre a la consulta con LIKE.
      */
     @Override
-    public List<Usuario> buscar(String query) {
-        return usuarioRepository.findByNameContainingIgnoreCaseOrCodeContainingIgnoreCaseOrEmailContainingIgnoreCase(
-                query, query, query);
+    public PaginaDTO<Usuario> buscar(String query, int inicio, int limite) {
+        validarRango(inicio, limite);
+
+        if (!busquedaIndex.admite(query)) {
+            String texto = query.trim();
+            return paginar(usuarioRepository.findByNameContainingIgnoreCaseOrCodeContainingIgnoreCaseOrEmailContainingIgnoreCase(
+                    texto, texto, texto), inicio, limite);
+        }
+
+        return paginarPorIds(busquedaIndex.buscarUsuarios(query), inicio, limite,
+                usuarioRepository::findAllById, Usuario::getId);
     }
 
     /**
@@ -113,7 +132,7 @@ public class UsuarioServiceImpl implements UsuarioService {
                 local.setEmail(dto.getEmail());
                 local.setCarrera(dto.getCarrera());
                 local.setRol(dto.getRol());
-                usuarioRepository.save(local);
+                busquedaIndex.indexarUsuario(usuarioRepository.save(local));
                 actualizados++;
 
             } else {
@@ -124,7 +143,7 @@ public class UsuarioServiceImpl implements UsuarioService {
                 nuevo.setCarrera(dto.getCarrera());
                 nuevo.setRol(dto.getRol());
                 nuevo.setActivo(true);
-                usuarioRepository.save(nuevo);
+                busquedaIndex.indexarUsuario(usuarioRepository.save(nuevo));
                 creados++;
             }
         }
@@ -1,6 +1,4 @@
 package com.reservatec.util;
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -15,10 +13,10 @@ import java.io.IOException;
 @Component
 public class JwtFilter extends OncePerRequestFilter {
 
-    private final JwtUtil jwtUtil;
+    private final JwtVerificador jwtVerificador;
 
-    public JwtFilter(JwtUtil jwtUtil) {
-        this.jwtUtil = jwtUtil;
+    public JwtFilter(JwtVerificador jwtVerificador) {
+        this.jwtVerificador = jwtVerificador;
     }
 
     @Override
@@ -45,18 +43,9 @@ public class JwtFilter extends OncePerRequestFilter {
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
             try {
-                Claims claims = Jwts.parserBuilder()
-                        .setSigningKey(jwtUtil.getKey())
-                        .build()
-                        .parseClaimsJws(token)
-                        .getBody();
+                CustomUserDetails userDetails = jwtVerificador.verificar(token);
 
-                String email = claims.getSubject();
-                String rol = claims.get("rol", String.class);
-
-                if (email != null && rol != null) {
-                    Long id = claims.get("id", Long.class);
-                    CustomUserDetails userDetails = new CustomUserDetails(id, email, rol);
+                if (userDetails != null) {
                     var auth = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                     SecurityContextHolder.getContext().setAuthentication(auth);
                 }
@@ -0,0 +1,113 @@
+package com.reservatec.util;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Verifica tokens JWT con un único parser reutilizable y recuerda los ya verificados hasta su propio {@code exp},
+ * para no recalcular la firma HMAC en cada petición (por ejemplo, en las consultas frecuentes del cronómetro).
+ * La caché se indexa por el SHA-256 del token, así que no guarda tokens en claro, y tiene un tamaño máximo:
+ * al llenarse descarta los vencidos y, si no basta, la cuarta parte que vence antes.
+ */
+@Component
+public class JwtVerificador {
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final JwtParser parser;
+    private final int maxEntradas;
+    private final Map<ByteBuffer, Verificado> verificados = new ConcurrentHashMap<>();
+
+    private final Counter aciertos;
+    private final Counter fallos;
+
+    public JwtVerificador(JwtUtil jwtUtil,
+                          MeterRegistry registro,
+                          @Value("${jwt.cache.max-entradas:10000}") int maxEntradas) {
+        this.parser = Jwts.parserBuilder().setSigningKey(jwtUtil.getKey()).build();
+        this.maxEntradas = maxEntradas;
+        this.aciertos = Counter.builder("jwt.cache").tag("resultado", "acierto").register(registro);
+        this.fallos = Counter.builder("jwt.cache").tag("resultado", "fallo").register(registro);
+        Gauge.builder("jwt.cache.tamano", verificados, Map::size).register(registro);
+    }
+
+    /**
+     * Devuelve el usuario del token, verificándolo solo si no estaba en caché o ya venció.
+     *
+     * @param token token JWT sin el prefijo "Bearer "
+     * @return usuario autenticado, o null si el token es válido pero no trae correo o rol
+     * @throws io.jsonwebtoken.JwtException si el token es inválido o expiró
+     */
+    public CustomUserDetails verificar(String token) {
+        ByteBuffer clave = ByteBuffer.wrap(SHA256.get().digest(token.getBytes(StandardCharsets.UTF_8)));
+        long ahora = System.currentTimeMillis();
+
+        Verificado verificado = verificados.get(clave);
+        if (verificado != null && verificado.expiraEn() > ahora) {
+            aciertos.increment();
+            return verificado.usuario();
+        }
+        fallos.increment();
+
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        String email = claims.getSubject();
+        String rol = claims.get("rol", String.class);
+        if (email == null || rol == null) return null;
+
+        CustomUserDetails usuario = new CustomUserDetails(claims.get("id", Long.class), email, rol);
+        Date expiracion = claims.getExpiration();
+        if (expiracion != null) {
+            guardar(clave, new Verificado(usuario, expiracion.getTime()), ahora);
+        }
+        return usuario;
+    }
+
+    private void guardar(ByteBuffer clave, Verificado verificado, long ahora) {
+        if (verificados.size() >= maxEntradas) {
+            hacerEspacio(ahora);
+        }
+        verificados.put(clave, verificado);
+    }
+
+    /**
+     * Descarta los vencidos y, si la caché sigue llena, la cuarta parte que vence antes. Como todos los tokens
+     * se emiten con la misma vigencia, son los más antiguos y los que menos aciertos pueden dar todavía.
+     */
+    private synchronized void hacerEspacio(long ahora) {
+        if (verificados.size() < maxEntradas) return;
+
+        verificados.values().removeIf(v -> v.expiraEn() <= ahora);
+        if (verificados.size() < maxEntradas) return;
+
+        verificados.entrySet().stream()
+                .sorted(Map.Entry.comparingByValue(Comparator.comparingLong(Verificado::expiraEn)))
+                .limit(Math.max(1, maxEntradas / 4))
+                .map(Map.Entry::getKey)
+                .toList()
+                .forEach(verificados::remove);
+    }
+
+    private record Verificado(CustomUserDetails usuario, long expiraEn) {
+    }
+}
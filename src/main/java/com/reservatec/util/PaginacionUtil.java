@@ -0,0 +1,63 @@
+package com.reservatec.util;
+
+import com.reservatec.dto.PaginaDTO;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Utilidades para paginar por posición ({@code inicio} y {@code limite}) resultados ya calculados en memoria.
+ */
+public final class PaginacionUtil {
+
+    public static final int MAX_LIMITE_PAGINA = 500;
+
+    private PaginacionUtil() {
+    }
+
+    public static void validarLimite(int limite) {
+        if (limite < 1 || limite > MAX_LIMITE_PAGINA) {
+            throw new IllegalArgumentException("El límite debe estar entre 1 y " + MAX_LIMITE_PAGINA + ".");
+        }
+    }
+
+    public static void validarRango(int inicio, int limite) {
+        if (inicio < 0 || limite < 1 || limite > MAX_LIMITE_PAGINA) {
+            throw new IllegalArgumentException("El inicio no puede ser negativo y el límite debe estar entre 1 y " + MAX_LIMITE_PAGINA + ".");
+        }
+    }
+
+    /**
+     * Devuelve la página pedida de una lista completa; vacía si {@code inicio} supera el total.
+     */
+    public static <T> PaginaDTO<T> paginar(List<T> todos, int inicio, int limite) {
+        return new PaginaDTO<>(recortar(todos, inicio, limite), inicio, todos.size(), null);
+    }
+
+    /**
+     * Devuelve la página pedida de una lista de IDs ya ordenada, cargando solo los elementos de esa página
+     * y conservando el orden de los IDs. Los IDs que ya no existen se omiten.
+     *
+     * @param cargar carga los elementos de los IDs indicados, en cualquier orden
+     * @param id     obtiene el ID de un elemento cargado
+     */
+    public static <T> PaginaDTO<T> paginarPorIds(List<Long> ids, int inicio, int limite,
+                                                 Function<List<Long>, List<T>> cargar, Function<T, Long> id) {
+        List<Long> idsPagina = recortar(ids, inicio, limite);
+
+        Map<Long, T> porId = cargar.apply(idsPagina).stream()
+                .collect(Collectors.toMap(id, e -> e));
+        List<T> pagina = idsPagina.stream()
+                .map(porId::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new PaginaDTO<>(pagina, inicio, ids.size(), null);
+    }
+
+    private static <T> List<T> recortar(List<T> lista, int inicio, int limite) {
+        return lista.subList(Math.min(inicio, lista.size()), Math.min(inicio + limite, lista.size()));
+    }
+}
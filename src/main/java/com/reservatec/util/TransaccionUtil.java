@@ -0,0 +1,39 @@
+package com.reservatec.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Utilidades para ejecutar acciones en función del resultado de la transacción actual.
+ */
+public final class TransaccionUtil {
+
+    /** Indica que el hilo ya está ejecutando acciones posteriores al commit. */
+    private static final ThreadLocal<Boolean> TRAS_COMMIT = ThreadLocal.withInitial(() -> false);
+
+    private TransaccionUtil() {
+    }
+
+    /**
+     * Ejecuta la acción cuando la transacción actual confirme sus cambios.
+     * Si no hay transacción activa, o si se llama desde otra acción posterior al commit
+     * (cuando ya no se pueden registrar sincronizaciones), la ejecuta de inmediato.
+     */
+    public static void despuesDelCommit(Runnable accion) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive() || TRAS_COMMIT.get()) {
+            accion.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                TRAS_COMMIT.set(true);
+                try {
+                    accion.run();
+                } finally {
+                    TRAS_COMMIT.remove();
+                }
+            }
+        });
+    }
+}
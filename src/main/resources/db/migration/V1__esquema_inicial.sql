@@ -0,0 +1,116 @@
+-- Esquema inicial, tal como lo generaba Hibernate con ddl-auto=update.
+-- En bases existentes no se ejecuta: spring.flyway.baseline-on-migrate las marca en esta versión.
+
+create table espacios (
+    activo bit not null,
+    aforo integer not null,
+    id bigint not null auto_increment,
+    foto varchar(255),
+    nombre varchar(255) not null,
+    primary key (id)
+);
+
+create table fechas_bloqueadas (
+    activo bit not null,
+    aplicaatodos_los_espacios bit not null,
+    aplicaatodos_los_horarios bit not null,
+    fecha_fin date not null,
+    fecha_inicio date not null,
+    ignorar bit not null,
+    espacio_id bigint,
+    horario_id bigint,
+    id bigint not null auto_increment,
+    motivo varchar(255) not null,
+    tipo_bloqueo enum ('EVENTO','FERIADO','MANTENIMIENTO','OTRO','VACACIONES') not null,
+    primary key (id)
+);
+
+create table horarios (
+    activo bit not null,
+    hora_fin time(6) not null,
+    hora_inicio time(6) not null,
+    id bigint not null auto_increment,
+    primary key (id)
+);
+
+create table notificaciones (
+    activo bit not null,
+    fecha_actualizacion datetime(6) not null,
+    fecha_creacion datetime(6) not null,
+    id bigint not null auto_increment,
+    contenido varchar(500) not null,
+    primary key (id)
+);
+
+create table reserva_log_expirada (
+    fecha date,
+    espacio_id bigint,
+    fecha_expiracion datetime(6),
+    horario_id bigint,
+    id bigint not null auto_increment,
+    reserva_id bigint,
+    usuario_id bigint,
+    primary key (id)
+);
+
+create table reservas (
+    activo bit not null,
+    asistencia_confirmada bit not null,
+    creado_por_admin bit not null,
+    fecha date not null,
+    espacio_id bigint not null,
+    fecha_actualizacion datetime(6),
+    fecha_creacion datetime(6),
+    horario_id bigint not null,
+    id bigint not null auto_increment,
+    usuario_id bigint not null,
+    codigo_reserva varchar(25) not null,
+    estado enum ('ACTIVA','CANCELADA','COMPLETADA','CURSO','PENDIENTE') not null,
+    primary key (id)
+);
+
+create table usuarios (
+    activo bit not null,
+    id bigint not null auto_increment,
+    carrera varchar(255),
+    code varchar(255) not null,
+    email varchar(255) not null,
+    foto varchar(255),
+    name varchar(255) not null,
+    rol varchar(255),
+    primary key (id)
+);
+
+alter table reservas 
+   add constraint UKip64u7ydgv41unt5emvqg4ony unique (codigo_reserva);
+
+alter table usuarios 
+   add constraint UK23deudc78l0qn4ec2yqtansej unique (code);
+
+alter table usuarios 
+   add constraint UKkfsp0s1tflm1cwlj8idhqsad0 unique (email);
+
+alter table fechas_bloqueadas 
+   add constraint FKcfwbdc3pfx5wgbofy6fnb1rbj 
+   foreign key (espacio_id) 
+   references espacios (id);
+
+alter table fechas_bloqueadas 
+   add constraint FKip4ik17f9cgh1420oto1tvf4t 
+   foreign key (horario_id) 
+   references horarios (id);
+
+alter table reservas 
+   add constraint FKfp1hb6safjpuo5ehubembn6hu 
+   foreign key (espacio_id) 
+   references espacios (id);
+
+alter table reservas 
+   add constraint FKjqqojg9kxbpyyr1huey2kv1f6 
+   foreign key (horario_id) 
+   references horarios (id);
+
+alter table reservas 
+   add constraint FKcfh7qcr7oxomqk5hhbxdg2m7p 
+   foreign key (usuario_id) 
+   references usuarios (id);
@@ -0,0 +1,50 @@
+-- Índices compuestos para las consultas frecuentes sobre reservas.
+
+-- Disponibilidad, grilla por rango y fechas completas: espacio + fecha (+ activo), cubriendo horario y estado.
+CREATE INDEX idx_reservas_espacio_fecha ON reservas (espacio_id, fecha, activo, horario_id, estado);
+
+-- Reservas vigentes del usuario, cronómetro y "mis reservas": usuario + estado + activo.
+CREATE INDEX idx_reservas_usuario_estado ON reservas (usuario_id, estado, activo, fecha);
+
+-- Tareas programadas por estado (PENDIENTE, ACTIVA, CURSO) y conteos por estado y fecha.
+CREATE INDEX idx_reservas_estado_fecha ON reservas (estado, fecha);
+
+-- Reportes y calendario por rango de fechas.
+CREATE INDEX idx_reservas_fecha_estado ON reservas (fecha, estado);
+
+-- Antes de exigir una sola reserva viva por espacio, horario y fecha (abajo), se resuelven los
+-- duplicados que pudo dejar la aplicación antes de esta versión. De cada grupo se conserva la reserva
+-- más avanzada (EN CURSO, luego ACTIVA, luego PENDIENTE) y, a igual estado, la más antigua; las demás
+-- pasan a CANCELADA. Cada reserva cancelada queda registrada en reservas_duplicadas_v2 junto con la
+-- que se conservó y su estado anterior, para revisarlas o avisar a sus usuarios después del despliegue.
+CREATE TABLE reservas_duplicadas_v2 (
+    reserva_id BIGINT NOT NULL,
+    conservada_id BIGINT NOT NULL,
+    estado_anterior VARCHAR(20) NOT NULL,
+    PRIMARY KEY (reserva_id)
+);
+
+INSERT INTO reservas_duplicadas_v2 (reserva_id, conservada_id, estado_anterior)
+SELECT id, conservada_id, estado
+FROM (
+    SELECT id, estado,
+           FIRST_VALUE(id) OVER (
+               PARTITION BY espacio_id, horario_id, fecha
+               ORDER BY CASE estado WHEN 'CURSO' THEN 0 WHEN 'ACTIVA' THEN 1 ELSE 2 END, id
+           ) AS conservada_id
+    FROM reservas
+    WHERE activo = TRUE AND estado IN ('PENDIENTE', 'ACTIVA', 'CURSO')
+) vivas
+WHERE id <> conservada_id;
+
+UPDATE reservas
+SET estado = 'CANCELADA', fecha_actualizacion = CURRENT_TIMESTAMP(6)
+WHERE id IN (SELECT reserva_id FROM reservas_duplicadas_v2);
+
+-- Una sola reserva viva (PENDIENTE, ACTIVA o EN CURSO y activa) por espacio, horario y fecha.
+-- slot_vivo vale 1 solo en reservas vivas y NULL en el resto; como los NULL no chocan en un índice
+-- único, las reservas canceladas o completadas del mismo horario no cuentan.
+ALTER TABLE reservas ADD COLUMN slot_vivo TINYINT
+    GENERATED ALWAYS AS (CASE WHEN activo = TRUE AND estado IN ('PENDIENTE', 'ACTIVA', 'CURSO') THEN 1 END);
+
+CREATE UNIQUE INDEX uk_reservas_slot_vivo ON reservas (espacio_id, horario_id, fecha, slot_vivo);
@@ -0,0 +1,11 @@
+-- Reclamos de horario para el modo de creación OPTIMISTA: una fila por (espacio, horario, fecha)
+-- que apunta a la reserva viva que lo ocupa. Se inserta al empezar a crear la reserva y, si ya
+-- existe, solo puede retomarse cuando su reserva dejó de estar viva.
+CREATE TABLE reserva_slots (
+    espacio_id BIGINT NOT NULL,
+    horario_id BIGINT NOT NULL,
+    fecha DATE NOT NULL,
+    reserva_id BIGINT,
+    fecha_reclamo DATETIME(6) NOT NULL,
+    PRIMARY KEY (espacio_id, horario_id, fecha)
+);
@@ -0,0 +1,139 @@
+package com.reservatec.cache;
+
+import com.reservatec.config.MetricasReservas;
+import com.reservatec.entity.Espacio;
+import com.reservatec.entity.Usuario;
+import com.reservatec.entity.enums.EstadoReserva;
+import com.reservatec.event.ReservaCambiadaEvent;
+import com.reservatec.repository.EspacioRepository;
+import com.reservatec.repository.ReservaRepository;
+import com.reservatec.repository.UsuarioRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Dos usuarios con el mismo dominio de correo, dos espacios y tres reservas:
+ * la 100 y la 102 de José, la 101 de Ana; la 101 y la 102 en la cancha de fútbol.
+ */
+class BusquedaIndexTest {
+
+    private final UsuarioRepository usuarios = mock(UsuarioRepository.class);
+    private final EspacioRepository espacios = mock(EspacioRepository.class);
+    private final ReservaRepository reservas = mock(ReservaRepository.class);
+    private BusquedaIndex indice;
+
+    @BeforeEach
+    void reconstruir() {
+
+        when(usuarios.findAll()).thenReturn(List.of(
+                usuario(1L, "José Pérez", "U2021001", "jose.perez@tecsup.edu.pe"),
+                usuario(2L, "Ana Torres", "U2021002", "ana.torres@tecsup.edu.pe")));
+        when(espacios.findAll()).thenReturn(List.of(espacio(10L, "Losa Deportiva"), espacio(11L, "Cancha de Fútbol")));
+        when(reservas.listarClavesBusqueda()).thenReturn(List.of(
+                new Object[]{100L, "RES-AAA", 1L, 10L},
+                new Object[]{101L, "RES-BBB", 2L, 11L},
+                new Object[]{102L, "RES-CCC", 1L, 11L}));
+
+        indice = new BusquedaIndex(usuarios, espacios, reservas, new MetricasReservas(new SimpleMeterRegistry()));
+        indice.reconstruir();
+    }
+
+    @Test
+    void buscarUsuarios_noDistingueMayusculasNiTildes() {
+        assertEquals(List.of(1L), indice.buscarUsuarios("PEREZ"));
+        assertEquals(List.of(1L), indice.buscarUsuarios("josé"));
+    }
+
+    @Test
+    void buscarUsuarios_incluyeElCorreoYDesempataPorIdDescendente() {
+        assertEquals(List.of(2L, 1L), indice.buscarUsuarios("tecsup"));
+    }
+
+    @Test
+    void buscarReservas_noCoincidePorElCorreoDelUsuario() {
+        assertTrue(indice.buscarReservas("tecsup").isEmpty());
+    }
+
+    @Test
+    void buscarReservas_ordenaPorCodigoLuegoUsuarioLuegoEspacio() {
+        assertEquals(List.of(100L), indice.buscarReservas("res-aaa"));
+        assertEquals(List.of(102L, 100L), indice.buscarReservas("Jose"));
+        assertEquals(List.of(102L, 101L), indice.buscarReservas("futbol"));
+        // "res" coincide con los tres códigos y, a igual rango, va primero la más reciente
+        assertEquals(List.of(102L, 101L, 100L), indice.buscarReservas("RES"));
+    }
+
+    @Test
+    void reservaNueva_seIndexaConElEvento() {
+        indice.alCambiarReserva(new ReservaCambiadaEvent(103L, "RES-DDD", 10L, 5L, LocalDate.now(), 2L,
+                EstadoReserva.PENDIENTE, false, true, false));
+
+        assertEquals(List.of(103L), indice.buscarReservas("res-ddd"));
+        assertEquals(List.of(103L, 101L), indice.buscarReservas("ana torres"));
+    }
+
+    @Test
+    void reservaBorrada_saleDeTodasLasBusquedas() {
+        indice.alCambiarReserva(new ReservaCambiadaEvent(102L, "RES-CCC", 11L, 5L, LocalDate.now(), 1L,
+                EstadoReserva.PENDIENTE, false, false, true));
+
+        assertTrue(indice.buscarReservas("res-ccc").isEmpty());
+        assertEquals(List.of(100L), indice.buscarReservas("Jose"));
+        assertEquals(List.of(101L), indice.buscarReservas("futbol"));
+        assertEquals(List.of(101L, 100L), indice.buscarReservas("RES"));
+    }
+
+    @Test
+    void reservaInactivada_sigueIndexada() {
+        indice.alCambiarReserva(new ReservaCambiadaEvent(102L, "RES-CCC", 11L, 5L, LocalDate.now(), 1L,
+                EstadoReserva.CANCELADA, false, false, false));
+
+        assertEquals(List.of(102L), indice.buscarReservas("res-ccc"));
+    }
+
+    @Test
+    void reservaCreadaDuranteLaReconstruccion_sigueIndexada() {
+        // La reserva se crea después de leer las claves, así que la carga no la ve
+        when(reservas.listarClavesBusqueda()).thenAnswer(invocacion -> {
+            indice.alCambiarReserva(new ReservaCambiadaEvent(104L, "RES-EEE", 10L, 5L, LocalDate.now(), 2L,
+                    EstadoReserva.PENDIENTE, false, true, false));
+            return List.<Object[]>of(new Object[]{100L, "RES-AAA", 1L, 10L});
+        });
+
+        indice.reconstruir();
+
+        assertEquals(List.of(104L), indice.buscarReservas("res-eee"));
+        assertEquals(List.of(100L), indice.buscarReservas("res-aaa"));
+    }
+
+    @Test
+    void consultaCorta_noSeAdmiteParaQueElServicioUseLaConsultaConLike() {
+        assertFalse(indice.admite("an"));
+        assertTrue(indice.admite("ana"));
+        assertThrows(IllegalArgumentException.class, () -> indice.buscarReservas("an"));
+    }
+
+    private static Usuario usuario(Long id, String nombre, String codigo, String correo) {
+        Usuario u = new Usuario();
+        u.setId(id);
+        u.setName(nombre);
+        u.setCode(codigo);
+        u.setEmail(correo);
+        return u;
+    }
+
+    private static Espacio espacio(Long id, String nombre) {
+        Espacio e = new Espacio();
+        e.setId(id);
+        e.setNombre(nombre);
+        return e;
+    }
+}
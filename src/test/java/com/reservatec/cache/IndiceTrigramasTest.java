@@ -0,0 +1,69 @@
+package com.reservatec.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndiceTrigramasTest {
+
+    private final IndiceTrigramas<Long> indice = new IndiceTrigramas<>();
+
+    @Test
+    void normalizar_quitaTildesMayusculasYEspaciosExtremos() {
+        assertEquals("nandu arbol", IndiceTrigramas.normalizar("  Ñandú ÁRBOL "));
+        assertEquals("", IndiceTrigramas.normalizar(null));
+    }
+
+    @Test
+    void coincidencias_noDistingueMayusculasNiTildes() {
+        indice.indexar(1L, List.of("Canción"));
+
+        assertEquals(Map.of(1L, 0), indice.coincidencias("CANCION"));
+        assertEquals(Map.of(1L, 2), indice.coincidencias("ciÓn"));
+    }
+
+    @Test
+    void coincidencias_rangoSegunCampoYTipoDeCoincidencia() {
+        indice.indexar(1L, List.of("Ana Torres", "U001"));
+        indice.indexar(2L, List.of("Mariana", "U002"));
+
+        // Campo 0: empieza con la consulta (1) o solo la contiene (2)
+        assertEquals(Map.of(1L, 1, 2L, 2), indice.coincidencias("ana"));
+        // Campo 1: 3 * 1 + 0 si es igual, 3 * 1 + 1 si empieza con la consulta
+        assertEquals(Map.of(1L, 3), indice.coincidencias("u001"));
+        assertEquals(Map.of(1L, 4, 2L, 4), indice.coincidencias("u00"));
+    }
+
+    @Test
+    void coincidencias_descartaCandidatosConTodosLosTrigramasPeroSinLaSubcadena() {
+        indice.indexar(1L, List.of("abcxbcd"));
+
+        assertTrue(indice.coincidencias("abcd").isEmpty());
+    }
+
+    @Test
+    void indexarDeNuevo_reemplazaElDocumentoYEliminarLoQuita() {
+        indice.indexar(1L, List.of("Pedro"));
+        indice.indexar(1L, List.of("Luis"));
+
+        assertTrue(indice.coincidencias("pedro").isEmpty());
+        assertEquals(Map.of(1L, 0), indice.coincidencias("luis"));
+
+        indice.eliminar(1L);
+        assertTrue(indice.coincidencias("luis").isEmpty());
+    }
+
+    @Test
+    void consultaDeMenosDeTresCaracteres_noSeAdmite() {
+        indice.indexar(1L, List.of("Ana"));
+
+        assertFalse(IndiceTrigramas.admite("an"));
+        assertFalse(IndiceTrigramas.admite("  á  "));
+        assertFalse(IndiceTrigramas.admite(null));
+        assertTrue(IndiceTrigramas.admite(" ANA "));
+        assertThrows(IllegalArgumentException.class, () -> indice.coincidencias("an"));
+    }
+}
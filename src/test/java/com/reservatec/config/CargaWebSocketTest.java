@@ -0,0 +1,176 @@
+package com.reservatec.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.autoconfigure.websocket.servlet.WebSocketServletAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.messaging.converter.StringMessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Arnés de carga para el transporte STOMP: levanta solo la configuración WebSocket sobre un Tomcat embebido,
+ * abre {@code -Dcarga.clientes} clientes STOMP locales suscritos a un mismo tópico y mide la memoria de heap
+ * por conexión y la latencia de un broadcast hasta el último cliente.
+ * La memoria incluye el lado cliente, que corre en la misma JVM, así que es una cota superior.
+ *
+ * <pre>mvn test -Pcarga -Dtest=CargaWebSocketTest -Dcarga.clientes=2000</pre>
+ */
+@SpringBootTest(classes = CargaWebSocketTest.Aplicacion.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@EnabledIfSystemProperty(named = "carga.clientes", matches = "\\d+")
+@Tag("carga")
+class CargaWebSocketTest {
+
+    private static final String TOPICO = "/topic/carga";
+    private static final int LOTE_CONEXIONES = 200;
+    private static final int RONDAS = 5;
+
+    @SpringBootConfiguration
+    @ImportAutoConfiguration({
+            ServletWebServerFactoryAutoConfiguration.class,
+            DispatcherServletAutoConfiguration.class,
+            WebMvcAutoConfiguration.class,
+            JacksonAutoConfiguration.class,
+            WebSocketServletAutoConfiguration.class
+    })
+    @Import({WebSocketConfig.class, MetricasWebSocket.class})
+    static class Aplicacion {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @LocalServerPort
+    private int puerto;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private MeterRegistry registro;
+
+    @Test
+    void broadcastAMilesDeClientes() throws Exception {
+        int cantidad = Integer.getInteger("carga.clientes");
+        WebSocketStompClient cliente = new WebSocketStompClient(new StandardWebSocketClient());
+        cliente.setMessageConverter(new StringMessageConverter());
+
+        AtomicReference<CountDownLatch> pendientes = new AtomicReference<>(new CountDownLatch(cantidad));
+        ConcurrentLinkedQueue<Long> latencias = new ConcurrentLinkedQueue<>();
+        CountDownLatch listos = new CountDownLatch(cantidad);
+
+        long heapInicial = heapUsado();
+        List<StompSession> sesiones = new ArrayList<>(cantidad);
+        for (int desde = 0; desde < cantidad; desde += LOTE_CONEXIONES) {
+            List<CompletableFuture<StompSession>> lote = new ArrayList<>();
+            for (int i = desde; i < Math.min(cantidad, desde + LOTE_CONEXIONES); i++) {
+                lote.add(cliente.connectAsync("ws://localhost:" + puerto + "/ws/websocket", new StompSessionHandlerAdapter() {
+                }));
+            }
+            for (CompletableFuture<StompSession> futura : lote) {
+                StompSession sesion = futura.get(30, TimeUnit.SECONDS);
+                sesion.subscribe(TOPICO, manejador(pendientes, latencias, listos));
+                sesiones.add(sesion);
+            }
+        }
+
+        // Las suscripciones son asíncronas: se calienta el tópico hasta que todos hayan recibido algo
+        while (!listos.await(100, TimeUnit.MILLISECONDS)) {
+            messagingTemplate.convertAndSend(TOPICO, "calentamiento");
+        }
+        Thread.sleep(500);
+        long heapPorConexion = (heapUsado() - heapInicial) / cantidad;
+
+        List<Long> todas = new ArrayList<>();
+        for (int ronda = 0; ronda < RONDAS; ronda++) {
+            latencias.clear();
+            pendientes.set(new CountDownLatch(cantidad));
+            messagingTemplate.convertAndSend(TOPICO, String.valueOf(System.nanoTime()));
+            assertTrue(pendientes.get().await(60, TimeUnit.SECONDS), "No todos los clientes recibieron el broadcast");
+            todas.addAll(latencias);
+        }
+
+        long[] ordenadas = todas.stream().mapToLong(Long::longValue).sorted().toArray();
+        System.out.printf("Clientes: %d, sesiones en el servidor: %.0f%n", cantidad,
+                registro.get("reservas.websocket.sesiones").tag("tipo", "websocket").gauge().value());
+        System.out.printf("Heap por conexión (cliente + servidor): %d bytes%n", heapPorConexion);
+        System.out.printf("Latencia de broadcast: p50=%.1f ms, p99=%.1f ms, máx=%.1f ms%n",
+                ms(percentil(ordenadas, 50)), ms(percentil(ordenadas, 99)), ms(ordenadas[ordenadas.length - 1]));
+
+        assertEquals((long) cantidad * RONDAS, ordenadas.length);
+        sesiones.forEach(StompSession::disconnect);
+    }
+
+    private static StompFrameHandler manejador(AtomicReference<CountDownLatch> pendientes,
+                                               ConcurrentLinkedQueue<Long> latencias, CountDownLatch listos) {
+        boolean[] recibioAlgo = {false};
+        return new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return String.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                long ahora = System.nanoTime();
+                if (!recibioAlgo[0]) {
+                    recibioAlgo[0] = true;
+                    listos.countDown();
+                }
+                if ("calentamiento".equals(payload)) return;
+
+                latencias.add(ahora - Long.parseLong((String) payload));
+                pendientes.get().countDown();
+            }
+        };
+    }
+
+    private static long heapUsado() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long percentil(long[] ordenadas, int p) {
+        return ordenadas[Math.min(ordenadas.length - 1, (int) Math.ceil(p / 100.0 * ordenadas.length) - 1)];
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
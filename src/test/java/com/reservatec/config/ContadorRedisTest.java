@@ -0,0 +1,72 @@
+package com.reservatec.config;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.redisson.Redisson;
+import org.redisson.RedissonBucket;
+import org.redisson.api.RBatch;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.config.Config;
+import redis.embedded.RedisServer;
+
+import java.net.ServerSocket;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cuenta contra un Redis embebido los viajes de comandos sueltos, de un MGET y de un lote en pipeline.
+ */
+class ContadorRedisTest {
+
+    private static RedisServer redis;
+    private static RedissonClient cliente;
+
+    @BeforeAll
+    static void iniciarRedis() throws Exception {
+        int puerto;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            puerto = socket.getLocalPort();
+        }
+        redis = new RedisServer(puerto);
+        redis.start();
+
+        Config config = new Config();
+        config.useSingleServer().setAddress("redis://127.0.0.1:" + puerto);
+        cliente = Redisson.create(ContadorRedis.instalar(config));
+    }
+
+    @AfterAll
+    static void detenerRedis() throws Exception {
+        cliente.shutdown();
+        redis.stop();
+    }
+
+    @Test
+    void cadaComandoYCadaLoteCuentanUnViaje() {
+        ContadorRedis.iniciar();
+        cliente.getBucket("contador:a", StringCodec.INSTANCE).set("1");
+        cliente.getBucket("contador:b", StringCodec.INSTANCE).set("2");
+        Map<String, Object> valores = cliente.getBuckets(StringCodec.INSTANCE).get("contador:a", "contador:b");
+
+        RBatch lote = cliente.createBatch();
+        lote.getBucket("contador:c", StringCodec.INSTANCE).setAsync("3");
+        lote.getBucket("contador:d", StringCodec.INSTANCE).setAsync("4");
+        lote.getBucket("contador:a", StringCodec.INSTANCE).getAsync();
+        lote.execute();
+
+        assertEquals(4, ContadorRedis.terminar());
+        assertEquals(Map.of("contador:a", "1", "contador:b", "2"), valores);
+    }
+
+    @Test
+    void fueraDeUnaPeticion_noSeCuentaYLosObjetosSonLosDeRedisson() {
+        assertInstanceOf(RedissonBucket.class, cliente.getBucket("contador:e"));
+        cliente.getBucket("contador:e", StringCodec.INSTANCE).set("5");
+
+        ContadorRedis.iniciar();
+        assertEquals(0, ContadorRedis.terminar());
+    }
+}
@@ -0,0 +1,39 @@
+package com.reservatec.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContadorSentenciasTest {
+
+    private final DataSource dataSource = (DataSource) new ContadorSentencias().postProcessAfterInitialization(
+            new DriverManagerDataSource("jdbc:h2:mem:contador;DB_CLOSE_DELAY=-1"), "dataSource");
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+    @Test
+    void cuentaLasSentenciasDeJdbcTemplate_yUnLoteComoUna() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS prueba (id INT PRIMARY KEY)");
+        jdbcTemplate.update("DELETE FROM prueba");
+
+        ContadorSentencias.iniciar();
+        jdbcTemplate.update("INSERT INTO prueba (id) VALUES (?)", 1);
+        jdbcTemplate.batchUpdate("INSERT INTO prueba (id) VALUES (?)", List.of(new Object[]{2}, new Object[]{3}));
+        Integer total = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM prueba", Integer.class);
+
+        assertEquals(3, ContadorSentencias.terminar());
+        assertEquals(3, total);
+    }
+
+    @Test
+    void fueraDeUnaPeticion_noSeCuenta() {
+        jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+
+        ContadorSentencias.iniciar();
+        assertEquals(0, ContadorSentencias.terminar());
+    }
+}
@@ -0,0 +1,96 @@
+package com.reservatec.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reservatec.entity.enums.EstadoReserva;
+import com.reservatec.event.ReservaCambiadaEnOtroNodoEvent;
+import com.reservatec.event.ReservaCambiadaEvent;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
+import redis.embedded.RedisServer;
+
+import java.net.ServerSocket;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Dos nodos en el mismo proceso, cada uno con su cliente de Redis, contra un Redis embebido:
+ * el cambio de reservas de un usuario en un nodo debe llegar como evento local al otro.
+ */
+class RelevoReservasUsuarioTest {
+
+    private static RedisServer redis;
+    private static final List<Nodo> nodos = new ArrayList<>();
+
+    @BeforeAll
+    static void iniciarRedis() throws Exception {
+        int puerto;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            puerto = socket.getLocalPort();
+        }
+        redis = new RedisServer(puerto);
+        redis.start();
+
+        for (int i = 0; i < 2; i++) {
+            nodos.add(new Nodo("redis://127.0.0.1:" + puerto, "reservatec:reservas-usuario:prueba"));
+        }
+    }
+
+    @AfterAll
+    static void detenerRedis() throws Exception {
+        nodos.forEach(n -> n.redisson.shutdown());
+        redis.stop();
+    }
+
+    @Test
+    void cambioEnUnNodo_llegaAlOtroSinEco() throws Exception {
+        Nodo a = nodos.get(0);
+        Nodo b = nodos.get(1);
+
+        a.relevo.alCambiarReserva(new ReservaCambiadaEvent(100L, "RES-AAA", 10L, 5L, LocalDate.now(), 7L,
+                EstadoReserva.CANCELADA, false, true, false));
+
+        Object evento = b.eventos.poll(5, TimeUnit.SECONDS);
+        assertEquals(new ReservaCambiadaEnOtroNodoEvent(7L, null), evento);
+        // El nodo que hizo el cambio ya invalidó con su propio evento y no recibe su aviso de vuelta
+        assertNull(a.eventos.poll(500, TimeUnit.MILLISECONDS));
+        assertNull(b.eventos.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void frameDeCronometro_llegaAlOtroNodo() throws Exception {
+        Nodo a = nodos.get(0);
+        Nodo b = nodos.get(1);
+
+        a.relevo.avisarCronometro(8L, Map.of("estado", "NINGUNA", "segundos", 0));
+
+        assertEquals(new ReservaCambiadaEnOtroNodoEvent(8L, Map.of("estado", "NINGUNA", "segundos", 0)),
+                b.eventos.poll(5, TimeUnit.SECONDS));
+        assertNull(a.eventos.poll(500, TimeUnit.MILLISECONDS));
+    }
+
+    private static final class Nodo {
+
+        final RedissonClient redisson;
+        final RelevoReservasUsuario relevo;
+        final BlockingQueue<Object> eventos = new LinkedBlockingQueue<>();
+
+        Nodo(String direccion, String canal) {
+            Config config = new Config();
+            config.useSingleServer().setAddress(direccion);
+            redisson = Redisson.create(config);
+            relevo = new RelevoReservasUsuario(redisson, eventos::add, new ObjectMapper(), canal);
+            relevo.suscribir();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.reservatec.config;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.converter.StringMessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+import redis.embedded.RedisServer;
+
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Levanta dos nodos en el mismo proceso, cada uno con su propio broker simple y su cliente de Redis,
+ * contra un Redis embebido, y verifica que lo enviado en un nodo llegue a los suscriptores del otro.
+ */
+class RelevoStompRedisTest {
+
+    private static final String DESTINO = "/topic/reservas/7";
+
+    private static RedisServer redis;
+    private static final List<Nodo> nodos = new ArrayList<>();
+
+    @BeforeAll
+    static void iniciarRedis() throws Exception {
+        int puerto;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            puerto = socket.getLocalPort();
+        }
+        redis = new RedisServer(puerto);
+        redis.start();
+
+        for (int i = 0; i < 2; i++) {
+            nodos.add(new Nodo("redis://127.0.0.1:" + puerto, "reservatec:websocket:prueba"));
+        }
+    }
+
+    @AfterAll
+    static void detenerRedis() throws Exception {
+        nodos.forEach(Nodo::detener);
+        redis.stop();
+    }
+
+    @Test
+    void mensajeDeUnNodo_llegaALosSuscriptoresDeAmbos() throws Exception {
+        Nodo a = nodos.get(0);
+        Nodo b = nodos.get(1);
+        a.suscribir("sesion-a", DESTINO);
+        b.suscribir("sesion-b", DESTINO);
+
+        a.plantilla.convertAndSend(DESTINO, "actualizar");
+
+        assertEquals("actualizar", a.siguiente());
+        assertEquals("actualizar", b.siguiente());
+        // Ningún nodo recibe el mensaje dos veces (ni eco del propio nodo ni reenvío en bucle)
+        assertNull(a.recibidos.poll(500, TimeUnit.MILLISECONDS));
+        assertNull(b.recibidos.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void destinosFueraDeTopic_noSeReparten() throws Exception {
+        Nodo a = nodos.get(0);
+        Nodo b = nodos.get(1);
+        b.suscribir("sesion-b2", "/queue/privado");
+
+        a.plantilla.convertAndSend("/queue/privado", "hola");
+
+        assertNull(b.recibidos.poll(500, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void cronometro_noSeReparte() throws Exception {
+        Nodo a = nodos.get(0);
+        Nodo b = nodos.get(1);
+        a.suscribir("sesion-a3", "/topic/cronometro/7");
+        b.suscribir("sesion-b3", "/topic/cronometro/7");
+
+        a.plantilla.convertAndSend("/topic/cronometro/7", "{\"estado\":\"ACTIVA\"}");
+
+        // Cada nodo emite el cronómetro a sus propias sesiones; el otro nodo no lo recibe por el relevo
+        assertNotNull(a.recibidos.poll(5, TimeUnit.SECONDS));
+        assertNull(b.recibidos.poll(500, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Pila de mensajería de un nodo: canal del broker con el relevo, broker simple y canal de salida a clientes.
+     */
+    private static final class Nodo {
+
+        final RedissonClient redisson;
+        final SimpleBrokerMessageHandler broker;
+        final SimpMessagingTemplate plantilla;
+        final BlockingQueue<Message<?>> recibidos = new LinkedBlockingQueue<>();
+
+        Nodo(String direccion, String canal) {
+            Config config = new Config();
+            config.useSingleServer().setAddress(direccion);
+            redisson = Redisson.create(config);
+
+            ExecutorSubscribableChannel entrada = new ExecutorSubscribableChannel();
+            ExecutorSubscribableChannel salida = new ExecutorSubscribableChannel();
+            ExecutorSubscribableChannel brokerChannel = new ExecutorSubscribableChannel();
+            salida.subscribe(mensaje -> {
+                if (SimpMessageHeaderAccessor.getMessageType(mensaje.getHeaders()) == SimpMessageType.MESSAGE) {
+                    recibidos.add(mensaje);
+                }
+            });
+
+            RelevoStompRedis relevo = new RelevoStompRedis(redisson, null, canal);
+            brokerChannel.addInterceptor(relevo);
+            relevo.conectar(brokerChannel);
+
+            broker = new SimpleBrokerMessageHandler(entrada, salida, brokerChannel, List.of("/topic", "/queue"));
+            broker.start();
+            plantilla = new SimpMessagingTemplate(brokerChannel);
+            plantilla.setMessageConverter(new StringMessageConverter());
+        }
+
+        void suscribir(String sesion, String destino) {
+            SimpMessageHeaderAccessor conexion = SimpMessageHeaderAccessor.create(SimpMessageType.CONNECT);
+            conexion.setSessionId(sesion);
+            broker.handleMessage(MessageBuilder.createMessage(new byte[0], conexion.getMessageHeaders()));
+
+            SimpMessageHeaderAccessor cabeceras = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+            cabeceras.setSessionId(sesion);
+            cabeceras.setSubscriptionId("sub-" + sesion);
+            cabeceras.setDestination(destino);
+            broker.handleMessage(MessageBuilder.createMessage(new byte[0], cabeceras.getMessageHeaders()));
+        }
+
+        String siguiente() throws InterruptedException {
+            Message<?> mensaje = recibidos.poll(5, TimeUnit.SECONDS);
+            assertNotNull(mensaje, "El nodo no recibió el mensaje");
+            assertEquals(DESTINO, SimpMessageHeaderAccessor.getDestination(mensaje.getHeaders()));
+            return new String((byte[]) mensaje.getPayload(), StandardCharsets.UTF_8);
+        }
+
+        void detener() {
+            broker.stop();
+            redisson.shutdown();
+        }
+    }
+}
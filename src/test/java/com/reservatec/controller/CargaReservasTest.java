@@ -0,0 +1,303 @@
+package com.reservatec.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reservatec.entity.Espacio;
+import com.reservatec.entity.Horario;
+import com.reservatec.entity.Usuario;
+import com.reservatec.repository.EspacioRepository;
+import com.reservatec.repository.HorarioRepository;
+import com.reservatec.repository.UsuarioRepository;
+import com.reservatec.util.JwtUtil;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Prueba de carga de extremo a extremo que reproduce la apertura de reservas: levanta la aplicación completa
+ * con el perfil "carga" (H2 en modo MySQL y un Redis embebido), siembra espacios, horarios y miles de usuarios,
+ * y cada usuario, en paralelo, consulta /horarios-ocupados, crea una reserva en un horario libre, la confirma
+ * y consulta /cronometro. Imprime un histograma de latencias y el throughput por endpoint, y falla si se
+ * incumplen los SLO configurados.
+ *
+ * <pre>mvn test -Pcarga -Dcarga.usuarios=2000 -Dcarga.hilos=64 -Dcarga.calentamiento=50 -Dcarga.slo.p99-ms=500 -Dcarga.slo.errores=0.01</pre>
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("carga")
+@Tag("carga")
+class CargaReservasTest {
+
+    private static final int USUARIOS = Integer.getInteger("carga.usuarios", 2000);
+    private static final int HILOS = Integer.getInteger("carga.hilos", 64);
+    private static final int CALENTAMIENTO = Integer.getInteger("carga.calentamiento", 50);
+    private static final int CONSULTAS_CRONOMETRO = Integer.getInteger("carga.consultas-cronometro", 3);
+    private static final double SLO_P99_MS = Double.parseDouble(System.getProperty("carga.slo.p99-ms", "500"));
+    private static final double SLO_ERRORES = Double.parseDouble(System.getProperty("carga.slo.errores", "0.01"));
+
+    private static final String[] CARRERAS = {
+            "Diseño y Desarrollo de Software", "Mecatrónica Industrial", "Electricidad Industrial",
+            "Administración de Redes", "Big Data y Ciencia de Datos"};
+    private static final long[] LIMITES_MS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000};
+
+    private static RedisServer redis;
+
+    @DynamicPropertySource
+    static void redisEmbebido(DynamicPropertyRegistry registro) throws IOException {
+        int puerto;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            puerto = socket.getLocalPort();
+        }
+        redis = new RedisServer(puerto);
+        redis.start();
+        registro.add("redisson.address", () -> "redis://127.0.0.1:" + puerto);
+    }
+
+    @AfterAll
+    static void detenerRedis() throws IOException {
+        if (redis != null) redis.stop();
+    }
+
+    @LocalServerPort
+    private int puerto;
+
+    @Autowired
+    private EspacioRepository espacioRepository;
+
+    @Autowired
+    private HorarioRepository horarioRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient http = HttpClient.newBuilder()
+            .executor(Executors.newFixedThreadPool(HILOS))
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    @Test
+    void aperturaDeReservas_cumpleLosSlo() throws Exception {
+        List<Long> espacios = sembrarEspacios();
+        List<Long> horarios = sembrarHorarios();
+        List<Usuario> usuarios = sembrarUsuarios();
+        List<LocalDate> fechas = proximosDiasHabiles(6);
+
+        ExecutorService pool = Executors.newFixedThreadPool(HILOS);
+        List<Callable<Void>> sesiones = new ArrayList<>();
+        for (Usuario usuario : usuarios) {
+            String token = jwtUtil.generarToken(usuario);
+            sesiones.add(() -> {
+                sesion(token, espacios, horarios, fechas);
+                return null;
+            });
+        }
+
+        // Los primeros usuarios calientan la JVM, Hibernate y las cachés; sus latencias no se reportan
+        ejecutar(pool, sesiones.subList(0, CALENTAMIENTO));
+        endpoints.clear();
+
+        long inicio = System.nanoTime();
+        ejecutar(pool, sesiones.subList(CALENTAMIENTO, sesiones.size()));
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        pool.shutdown();
+
+        List<String> incumplidos = reportar(segundos);
+        assertTrue(incumplidos.isEmpty(), "SLO incumplidos: " + incumplidos);
+    }
+
+    private static void ejecutar(ExecutorService pool, List<Callable<Void>> sesiones) throws Exception {
+        for (Future<Void> resultado : pool.invokeAll(sesiones)) {
+            resultado.get();
+        }
+    }
+
+    /**
+     * Flujo de un usuario: ver ocupados, reservar un horario libre, confirmarla y consultar el cronómetro.
+     */
+    private void sesion(String token, List<Long> espacios, List<Long> horarios, List<LocalDate> fechas) throws Exception {
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+        Long espacioId = espacios.get(aleatorio.nextInt(espacios.size()));
+        LocalDate fecha = fechas.get(aleatorio.nextInt(fechas.size()));
+
+        HttpResponse<String> ocupados = enviar("horarios-ocupados", token, "GET",
+                "/api/reservas/horarios-ocupados?espacioId=" + espacioId + "&fecha=" + fecha, null);
+        if (ocupados.statusCode() != 200) return;
+
+        Set<Long> tomados = Arrays.stream(objectMapper.readValue(ocupados.body(), Long[].class)).collect(Collectors.toSet());
+        List<Long> libres = horarios.stream().filter(h -> !tomados.contains(h)).toList();
+        if (!libres.isEmpty()) {
+            Long horarioId = libres.get(aleatorio.nextInt(libres.size()));
+            String cuerpo = objectMapper.writeValueAsString(Map.of(
+                    "espacioId", espacioId, "horarioId", horarioId, "fecha", fecha.toString()));
+
+            HttpResponse<String> creada = enviar("crear", token, "POST", "/api/reservas/usuario", cuerpo);
+            if (creada.statusCode() == 200) {
+                long reservaId = objectMapper.readTree(creada.body()).get("id").asLong();
+                enviar("confirmar", token, "PUT", "/api/reservas/" + reservaId + "/confirmar", null);
+            }
+        }
+
+        for (int i = 0; i < CONSULTAS_CRONOMETRO; i++) {
+            enviar("cronometro", token, "GET", "/api/reservas/cronometro", null);
+        }
+    }
+
+    private HttpResponse<String> enviar(String nombre, String token, String metodo, String ruta, String cuerpo) throws Exception {
+        HttpRequest.Builder peticion = HttpRequest.newBuilder(URI.create("http://localhost:" + puerto + ruta))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .method(metodo, cuerpo != null ? HttpRequest.BodyPublishers.ofString(cuerpo) : HttpRequest.BodyPublishers.noBody());
+
+        Endpoint endpoint = endpoints.computeIfAbsent(nombre, n -> new Endpoint());
+        long inicio = System.nanoTime();
+        try {
+            HttpResponse<String> respuesta = http.send(peticion.build(), HttpResponse.BodyHandlers.ofString());
+            endpoint.registrar(System.nanoTime() - inicio, respuesta.statusCode());
+            return respuesta;
+        } catch (IOException e) {
+            endpoint.registrar(System.nanoTime() - inicio, 0);
+            throw e;
+        }
+    }
+
+    /**
+     * Imprime el reporte y devuelve los SLO incumplidos.
+     */
+    private List<String> reportar(double segundos) {
+        List<String> incumplidos = new ArrayList<>();
+        long total = endpoints.values().stream().mapToLong(e -> e.latencias.size()).sum();
+        long errores = endpoints.values().stream().mapToLong(e -> e.errores.get()).sum();
+
+        System.out.printf("%n=== Carga: %d usuarios, %d hilos, %.1f s, %.0f req/s ===%n", USUARIOS, HILOS, segundos, total / segundos);
+        new TreeMap<>(endpoints).forEach((nombre, endpoint) -> {
+            long[] ordenadas = endpoint.latencias.stream().mapToLong(Long::longValue).sorted().toArray();
+            double p50 = ms(percentil(ordenadas, 50));
+            double p99 = ms(percentil(ordenadas, 99));
+            System.out.printf("%n%s: %d peticiones, %.0f req/s, p50=%.1f ms, p95=%.1f ms, p99=%.1f ms, máx=%.1f ms, estados=%s%n",
+                    nombre, ordenadas.length, ordenadas.length / segundos, p50, ms(percentil(ordenadas, 95)), p99,
+                    ms(ordenadas[ordenadas.length - 1]), new TreeMap<>(endpoint.estados));
+            imprimirHistograma(ordenadas);
+
+            if (p99 > SLO_P99_MS) {
+                incumplidos.add(String.format("%s p99 %.1f ms > %.1f ms", nombre, p99, SLO_P99_MS));
+            }
+        });
+
+        double tasaErrores = total == 0 ? 0 : (double) errores / total;
+        System.out.printf("%nErrores (5xx o de conexión): %d de %d (%.2f %%)%n", errores, total, tasaErrores * 100);
+        if (tasaErrores > SLO_ERRORES) {
+            incumplidos.add(String.format("tasa de errores %.4f > %.4f", tasaErrores, SLO_ERRORES));
+        }
+        return incumplidos;
+    }
+
+    private static void imprimirHistograma(long[] ordenadas) {
+        long[] conteos = new long[LIMITES_MS.length + 1];
+        for (long nanos : ordenadas) {
+            int i = 0;
+            while (i < LIMITES_MS.length && ms(nanos) > LIMITES_MS[i]) i++;
+            conteos[i]++;
+        }
+        long maximo = Arrays.stream(conteos).max().orElse(1);
+        for (int i = 0; i < conteos.length; i++) {
+            String etiqueta = i < LIMITES_MS.length ? "<= " + LIMITES_MS[i] + " ms" : "> " + LIMITES_MS[LIMITES_MS.length - 1] + " ms";
+            System.out.printf("  %12s | %-40s %d%n", etiqueta, "#".repeat((int) (40 * conteos[i] / Math.max(1, maximo))), conteos[i]);
+        }
+    }
+
+    private List<Long> sembrarEspacios() {
+        List<Espacio> espacios = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            Espacio espacio = new Espacio();
+            espacio.setNombre("Cancha de carga " + i);
+            espacio.setAforo(12);
+            espacios.add(espacio);
+        }
+        return espacioRepository.saveAll(espacios).stream().map(Espacio::getId).toList();
+    }
+
+    private List<Long> sembrarHorarios() {
+        List<Horario> horarios = new ArrayList<>();
+        for (int h = 7; h < 21; h++) {
+            Horario horario = new Horario();
+            horario.setHoraInicio(LocalTime.of(h, 0));
+            horario.setHoraFin(LocalTime.of(h + 1, 0));
+            horarios.add(horario);
+        }
+        return horarioRepository.saveAll(horarios).stream().map(Horario::getId).toList();
+    }
+
+    private List<Usuario> sembrarUsuarios() {
+        List<Usuario> usuarios = new ArrayList<>();
+        for (int i = 1; i <= CALENTAMIENTO + USUARIOS; i++) {
+            Usuario usuario = new Usuario();
+            usuario.setCode("C" + i);
+            usuario.setEmail("carga" + i + "@tecsup.edu.pe");
+            usuario.setName("Usuario de carga " + i);
+            usuario.setRol("USER");
+            usuario.setCarrera(CARRERAS[i % CARRERAS.length]);
+            usuarios.add(usuario);
+        }
+        return usuarioRepository.saveAll(usuarios);
+    }
+
+    private static List<LocalDate> proximosDiasHabiles(int cantidad) {
+        List<LocalDate> fechas = new ArrayList<>();
+        for (LocalDate fecha = LocalDate.now().plusDays(1); fechas.size() < cantidad; fecha = fecha.plusDays(1)) {
+            if (fecha.getDayOfWeek() != DayOfWeek.SUNDAY) fechas.add(fecha);
+        }
+        return fechas;
+    }
+
+    private static long percentil(long[] ordenadas, int p) {
+        return ordenadas[Math.min(ordenadas.length - 1, (int) Math.ceil(p / 100.0 * ordenadas.length) - 1)];
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * Latencias y códigos de estado de un endpoint; 5xx y fallos de conexión cuentan como errores.
+     */
+    private static final class Endpoint {
+
+        private final ConcurrentLinkedQueue<Long> latencias = new ConcurrentLinkedQueue<>();
+        private final Map<Integer, AtomicLong> estados = new ConcurrentHashMap<>();
+        private final AtomicLong errores = new AtomicLong();
+
+        void registrar(long nanos, int estado) {
+            latencias.add(nanos);
+            estados.computeIfAbsent(estado, e -> new AtomicLong()).incrementAndGet();
+            if (estado == 0 || estado >= 500) errores.incrementAndGet();
+        }
+    }
+}
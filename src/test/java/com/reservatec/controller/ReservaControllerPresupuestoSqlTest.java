@@ -0,0 +1,157 @@
+package com.reservatec.controller;
+
+import com.reservatec.entity.Espacio;
+import com.reservatec.entity.Horario;
+import com.reservatec.entity.Reserva;
+import com.reservatec.entity.Usuario;
+import com.reservatec.entity.enums.EstadoReserva;
+import com.reservatec.repository.EspacioRepository;
+import com.reservatec.repository.HorarioRepository;
+import com.reservatec.repository.ReservaRepository;
+import com.reservatec.repository.UsuarioRepository;
+import com.reservatec.support.PresupuestoSql;
+import com.reservatec.util.JwtUtil;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Presupuestos de sentencias SQL de los listados de reservas: con {@value #RESERVAS} reservas, cada endpoint
+ * debe resolverse con un número fijo de sentencias, así que un N+1 al mapear reservas hace fallar la prueba.
+ */
+@SpringBootTest(properties = "reservas.sql.cabecera=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("carga")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReservaControllerPresupuestoSqlTest {
+
+    private static final int RESERVAS = 30;
+
+    private static RedisServer redis;
+
+    @DynamicPropertySource
+    static void redisEmbebido(DynamicPropertyRegistry registro) throws IOException {
+        int puerto;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            puerto = socket.getLocalPort();
+        }
+        redis = new RedisServer(puerto);
+        redis.start();
+        registro.add("redisson.address", () -> "redis://127.0.0.1:" + puerto);
+    }
+
+    @AfterAll
+    static void detenerRedis() throws IOException {
+        if (redis != null) redis.stop();
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EspacioRepository espacioRepository;
+
+    @Autowired
+    private HorarioRepository horarioRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private String tokenUsuario;
+    private String tokenAdmin;
+
+    @BeforeAll
+    void sembrar() {
+        Espacio espacio = new Espacio();
+        espacio.setNombre("Cancha de fútbol");
+        espacio.setAforo(12);
+        espacio = espacioRepository.save(espacio);
+
+        Horario horario = new Horario();
+        horario.setHoraInicio(LocalTime.of(10, 0));
+        horario.setHoraFin(LocalTime.of(11, 0));
+        horario = horarioRepository.save(horario);
+
+        Usuario usuario = usuarioRepository.save(usuario("U0001", "alumno@tecsup.edu.pe", "USER"));
+        Usuario admin = usuarioRepository.save(usuario("A0001", "admin@tecsup.edu.pe", "ADMIN"));
+
+        List<Reserva> reservas = new ArrayList<>();
+        for (int i = 0; i < RESERVAS; i++) {
+            Reserva reserva = new Reserva();
+            reserva.setCodigoReserva(String.format("P%05d", i));
+            reserva.setFecha(LocalDate.now().minusDays(i + 1));
+            reserva.setEspacio(espacio);
+            reserva.setHorario(horario);
+            reserva.setUsuario(usuario);
+            reserva.setEstado(i % 2 == 0 ? EstadoReserva.COMPLETADA : EstadoReserva.ACTIVA);
+            reservas.add(reserva);
+        }
+        reservaRepository.saveAll(reservas);
+
+        tokenUsuario = "Bearer " + jwtUtil.generarToken(usuario);
+        tokenAdmin = "Bearer " + jwtUtil.generarToken(admin);
+    }
+
+    @Test
+    void misReservas() throws Exception {
+        mockMvc.perform(get("/api/reservas/mis-reservas").header("Authorization", tokenUsuario))
+                .andExpect(status().isOk())
+                .andExpect(PresupuestoSql.maximo(1));
+    }
+
+    @Test
+    void listadoGeneral() throws Exception {
+        mockMvc.perform(get("/api/reservas").header("Authorization", tokenAdmin))
+                .andExpect(status().isOk())
+                .andExpect(PresupuestoSql.maximo(2));
+    }
+
+    @Test
+    void listadoActivas() throws Exception {
+        mockMvc.perform(get("/api/reservas/activas").header("Authorization", tokenAdmin))
+                .andExpect(status().isOk())
+                .andExpect(PresupuestoSql.maximo(2));
+    }
+
+    @Test
+    void calendario() throws Exception {
+        mockMvc.perform(get("/api/reservas/calendario").header("Authorization", tokenAdmin))
+                .andExpect(status().isOk())
+                .andExpect(PresupuestoSql.maximo(1));
+    }
+
+    private static Usuario usuario(String codigo, String email, String rol) {
+        Usuario usuario = new Usuario();
+        usuario.setCode(codigo);
+        usuario.setEmail(email);
+        usuario.setName("Usuario " + codigo);
+        usuario.setRol(rol);
+        usuario.setCarrera("Diseño y Desarrollo de Software");
+        return usuario;
+    }
+}
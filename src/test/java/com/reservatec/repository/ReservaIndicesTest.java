@@ -0,0 +1,180 @@
+package com.reservatec.repository;
+
+import com.reservatec.entity.Espacio;
+import com.reservatec.entity.Horario;
+import com.reservatec.entity.Reserva;
+import com.reservatec.entity.Usuario;
+import com.reservatec.entity.enums.EstadoReserva;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Verifica, sobre H2 en modo MySQL y con el esquema de las migraciones de Flyway, que las consultas
+ * frecuentes sobre reservas usen los índices compuestos y que no pueda haber dos reservas vivas
+ * para el mismo espacio, horario y fecha.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:indices;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ReservaIndicesTest {
+
+    @MockitoBean(answers = Answers.RETURNS_DEEP_STUBS)
+    private RedissonClient redissonClient;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Usuario usuario;
+    private Espacio espacio;
+    private Horario horario;
+
+    @BeforeEach
+    void preparar() {
+        usuario = new Usuario();
+        usuario.setCode("U1");
+        usuario.setEmail("usuario1@tecsup.edu.pe");
+        usuario.setName("Usuario 1");
+        em.persist(usuario);
+
+        espacio = new Espacio();
+        espacio.setNombre("Cancha 1");
+        espacio.setAforo(10);
+        em.persist(espacio);
+
+        horario = new Horario();
+        horario.setHoraInicio(LocalTime.of(8, 0));
+        horario.setHoraFin(LocalTime.of(9, 0));
+        em.persist(horario);
+
+        for (int i = 0; i < 20; i++) {
+            em.persist(reserva("R" + i, LocalDate.now().plusDays(i), EstadoReserva.ACTIVA));
+        }
+        em.flush();
+    }
+
+    @Test
+    void disponibilidadPorEspacioYFecha_usaIndiceEspacioFecha() {
+        assertThat(plan("SELECT horario_id, estado FROM reservas"
+                + " WHERE espacio_id = 1 AND fecha BETWEEN DATE '2026-01-01' AND DATE '2026-01-31' AND activo = TRUE"))
+                .contains("idx_reservas_espacio_fecha");
+    }
+
+    @Test
+    void reservasVigentesDelUsuario_usaIndiceUsuarioEstado() {
+        assertThat(plan("SELECT id FROM reservas"
+                + " WHERE usuario_id = 1 AND estado IN ('ACTIVA', 'CURSO') AND activo = TRUE"))
+                .contains("idx_reservas_usuario_estado");
+    }
+
+    @Test
+    void tareasPorEstado_usanIndiceEstadoFecha() {
+        assertThat(plan("SELECT id FROM reservas WHERE estado = 'PENDIENTE'"))
+                .contains("idx_reservas_estado_fecha");
+        assertThat(plan("SELECT COUNT(*) FROM reservas WHERE estado = 'COMPLETADA' AND fecha = DATE '2026-01-15'"))
+                .contains("idx_reservas_estado_fecha");
+    }
+
+    @Test
+    void reportesPorRangoDeFechas_usanIndiceFechaEstado() {
+        assertThat(plan("SELECT COUNT(*) FROM reservas WHERE fecha BETWEEN DATE '2026-01-01' AND DATE '2026-01-31'"))
+                .contains("idx_reservas_fecha_estado");
+    }
+
+    @Test
+    void dosReservasVivasEnElMismoHorario_violanLaRestriccion() {
+        LocalDate fecha = LocalDate.now().plusDays(30);
+        em.persist(reserva("VIVA-1", fecha, EstadoReserva.PENDIENTE));
+        em.flush();
+
+        assertThrows(DataIntegrityViolationException.class, () ->
+                jdbcTemplate.update("INSERT INTO reservas (activo, asistencia_confirmada, creado_por_admin, fecha,"
+                                + " espacio_id, horario_id, usuario_id, codigo_reserva, estado)"
+                                + " VALUES (TRUE, FALSE, FALSE, ?, ?, ?, ?, 'VIVA-2', 'ACTIVA')",
+                        fecha, espacio.getId(), horario.getId(), usuario.getId()));
+    }
+
+    @Test
+    void reservasCanceladasOCompletadas_noOcupanElHorario() {
+        LocalDate fecha = LocalDate.now().plusDays(30);
+        em.persist(reserva("CANCELADA", fecha, EstadoReserva.CANCELADA));
+        em.persist(reserva("COMPLETADA", fecha, EstadoReserva.COMPLETADA));
+        Reserva inactiva = reserva("INACTIVA", fecha, EstadoReserva.ACTIVA);
+        inactiva.setActivo(false);
+        em.persist(inactiva);
+        em.persist(reserva("VIVA", fecha, EstadoReserva.ACTIVA));
+        em.flush();
+
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM reservas WHERE fecha = ? AND slot_vivo = 1", Long.class, fecha)).isEqualTo(1L);
+    }
+
+    @Test
+    void migracionV2_cancelaLosDuplicadosVivosYConservaElMasAvanzado() {
+        Flyway flyway = Flyway.configure()
+                .dataSource("jdbc:h2:mem:duplicados;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "")
+                .target("1")
+                .load();
+        flyway.migrate();
+
+        JdbcTemplate jdbc = new JdbcTemplate(flyway.getConfiguration().getDataSource());
+        jdbc.update("INSERT INTO usuarios (id, activo, code, email, name) VALUES (1, TRUE, 'U1', 'u1@tecsup.edu.pe', 'U1')");
+        jdbc.update("INSERT INTO espacios (id, activo, aforo, nombre) VALUES (1, TRUE, 10, 'Cancha')");
+        jdbc.update("INSERT INTO horarios (id, activo, hora_inicio, hora_fin) VALUES (1, TRUE, '08:00:00', '09:00:00')");
+        String insertar = "INSERT INTO reservas (id, activo, asistencia_confirmada, creado_por_admin, fecha,"
+                + " espacio_id, horario_id, usuario_id, codigo_reserva, estado)"
+                + " VALUES (?, ?, FALSE, FALSE, DATE '2026-03-02', 1, 1, 1, ?, ?)";
+        jdbc.update(insertar, 1, true, "P1", "PENDIENTE");
+        jdbc.update(insertar, 2, true, "A2", "ACTIVA");
+        jdbc.update(insertar, 3, true, "A3", "ACTIVA");
+        jdbc.update(insertar, 4, false, "I4", "ACTIVA");
+        jdbc.update(insertar, 5, true, "C5", "CANCELADA");
+
+        flyway = Flyway.configure().configuration(flyway.getConfiguration()).target("latest").load();
+        flyway.migrate();
+
+        assertThat(jdbc.queryForList("SELECT id FROM reservas WHERE slot_vivo = 1", Long.class)).containsExactly(2L);
+        assertThat(jdbc.queryForList("SELECT reserva_id, conservada_id, estado_anterior FROM reservas_duplicadas_v2"
+                        + " ORDER BY reserva_id"))
+                .extracting(fila -> List.of(fila.get("reserva_id"), fila.get("conservada_id"), fila.get("estado_anterior")))
+                .containsExactly(List.of(1L, 2L, "PENDIENTE"), List.of(3L, 2L, "ACTIVA"));
+    }
+
+    private String plan(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+    }
+
+    private Reserva reserva(String codigo, LocalDate fecha, EstadoReserva estado) {
+        Reserva r = new Reserva();
+        r.setCodigoReserva(codigo);
+        r.setFecha(fecha);
+        r.setUsuario(usuario);
+        r.setEspacio(espacio);
+        r.setHorario(horario);
+        r.setEstado(estado);
+        return r;
+    }
+}
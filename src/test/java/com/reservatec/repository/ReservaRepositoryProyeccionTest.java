@@ -0,0 +1,125 @@
+package com.reservatec.repository;
+
+import com.reservatec.dto.ReservaResponseDTO;
+import com.reservatec.entity.Espacio;
+import com.reservatec.entity.Horario;
+import com.reservatec.entity.Reserva;
+import com.reservatec.entity.Usuario;
+import com.reservatec.entity.enums.EstadoReserva;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Verifica que las consultas proyectadas a {@link ReservaResponseDTO} ejecuten una sola sentencia
+ * sin importar cuántas reservas devuelvan (sin N+1 sobre espacio, horario y usuario).
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class ReservaRepositoryProyeccionTest {
+
+    @MockitoBean(answers = Answers.RETURNS_DEEP_STUBS)
+    private RedissonClient redissonClient;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics estadisticas;
+    private int secuencia;
+
+    @BeforeEach
+    void preparar() {
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void buscarPagina_usaUnaSentenciaSinImportarElTamano() {
+        crearReservas(2);
+        long conPocas = sentencias(() -> reservaRepository.buscarPagina(
+                null, true, null, null, null, Long.MAX_VALUE, Limit.of(50)), 2);
+
+        crearReservas(40);
+        long conMuchas = sentencias(() -> reservaRepository.buscarPagina(
+                null, true, null, null, null, Long.MAX_VALUE, Limit.of(50)), 42);
+
+        assertEquals(1, conPocas);
+        assertEquals(conPocas, conMuchas);
+    }
+
+    @Test
+    void listarDTOPorUsuarioYBusqueda_usanUnaSentencia() {
+        Usuario usuario = crearReservas(25).getUsuario();
+        List<EstadoReserva> estados = List.of(EstadoReserva.ACTIVA);
+
+        assertEquals(1, sentencias(() -> reservaRepository.listarDTOPorUsuario(usuario.getId(), estados), 25));
+        assertEquals(1, sentencias(() -> reservaRepository.buscarDTOPorTexto("cancha"), 25));
+    }
+
+    private long sentencias(Supplier<List<ReservaResponseDTO>> consulta, int esperadas) {
+        em.clear();
+        estadisticas.clear();
+        List<ReservaResponseDTO> resultado = consulta.get();
+        assertEquals(esperadas, resultado.size());
+        return estadisticas.getPrepareStatementCount();
+    }
+
+    /**
+     * Crea reservas de un mismo usuario, cada una en un espacio y horario propios.
+     */
+    private Reserva crearReservas(int cantidad) {
+        Usuario usuario = new Usuario();
+        usuario.setCode("U" + (++secuencia));
+        usuario.setEmail("usuario" + secuencia + "@tecsup.edu.pe");
+        usuario.setName("Usuario " + secuencia);
+        em.persist(usuario);
+
+        Reserva ultima = null;
+        for (int i = 0; i < cantidad; i++) {
+            Espacio espacio = new Espacio();
+            espacio.setNombre("Cancha " + secuencia + "-" + i);
+            espacio.setAforo(10);
+            em.persist(espacio);
+
+            Horario horario = new Horario();
+            horario.setHoraInicio(LocalTime.of(8, 0));
+            horario.setHoraFin(LocalTime.of(9, 0));
+            em.persist(horario);
+
+            ultima = new Reserva();
+            ultima.setCodigoReserva("R" + secuencia + "-" + i);
+            ultima.setFecha(LocalDate.now().plusDays(i));
+            ultima.setUsuario(usuario);
+            ultima.setEspacio(espacio);
+            ultima.setHorario(horario);
+            ultima.setEstado(EstadoReserva.ACTIVA);
+            em.persist(ultima);
+        }
+        em.flush();
+        return ultima;
+    }
+}
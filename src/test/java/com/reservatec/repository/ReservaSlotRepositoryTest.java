@@ -0,0 +1,94 @@
+package com.reservatec.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Reglas para retomar un reclamo de {@code reserva_slots} ya existente, sobre H2 en modo MySQL.
+ * La competencia entre solicitudes simultáneas se prueba en {@code ReservaCreacionConcurrenciaTest}.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:slots;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password="
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(ReservaSlotRepository.class)
+class ReservaSlotRepositoryTest {
+
+    @MockitoBean(answers = Answers.RETURNS_DEEP_STUBS)
+    private RedissonClient redissonClient;
+
+    @Autowired
+    private ReservaSlotRepository reservaSlotRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long usuarioId;
+    private long otroUsuarioId;
+    private long espacioId;
+    private long horarioId;
+    private final LocalDate fecha = LocalDate.now().plusDays(1);
+
+    @BeforeEach
+    void preparar() {
+        jdbcTemplate.update("INSERT INTO usuarios (activo, code, email, name) VALUES (TRUE, 'U1', 'u1@tecsup.edu.pe', 'Usuario 1')");
+        jdbcTemplate.update("INSERT INTO espacios (activo, aforo, nombre) VALUES (TRUE, 10, 'Cancha 1')");
+        jdbcTemplate.update("INSERT INTO horarios (activo, hora_inicio, hora_fin) VALUES (TRUE, TIME '08:00:00', TIME '09:00:00')");
+        usuarioId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM usuarios", Long.class);
+        otroUsuarioId = usuarioId + 1;
+        espacioId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM espacios", Long.class);
+        horarioId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM horarios", Long.class);
+    }
+
+    @Test
+    void reclamoConReservaViva_soloLoRetomaElDuenoDeLaPendiente() {
+        assertTrue(reservaSlotRepository.reclamar(espacioId, horarioId, fecha, usuarioId));
+        long reservaId = insertarReserva("PENDIENTE");
+        reservaSlotRepository.asignar(espacioId, horarioId, fecha, reservaId);
+
+        assertFalse(reservaSlotRepository.reclamar(espacioId, horarioId, fecha, otroUsuarioId));
+        // El dueño de la reserva PENDIENTE puede retomarlo para reemplazarla
+        assertTrue(reservaSlotRepository.reclamar(espacioId, horarioId, fecha, usuarioId));
+    }
+
+    @Test
+    void reclamoConReservaActiva_nadieLoRetoma() {
+        assertTrue(reservaSlotRepository.reclamar(espacioId, horarioId, fecha, usuarioId));
+        reservaSlotRepository.asignar(espacioId, horarioId, fecha, insertarReserva("ACTIVA"));
+
+        assertFalse(reservaSlotRepository.reclamar(espacioId, horarioId, fecha, otroUsuarioId));
+        assertFalse(reservaSlotRepository.reclamar(espacioId, horarioId, fecha, usuarioId));
+    }
+
+    @Test
+    void reclamoConReservaQueDejoDeEstarViva_loRetomaCualquiera() {
+        assertTrue(reservaSlotRepository.reclamar(espacioId, horarioId, fecha, usuarioId));
+        long reservaId = insertarReserva("ACTIVA");
+        reservaSlotRepository.asignar(espacioId, horarioId, fecha, reservaId);
+
+        jdbcTemplate.update("UPDATE reservas SET estado = 'CANCELADA' WHERE id = ?", reservaId);
+        assertTrue(reservaSlotRepository.reclamar(espacioId, horarioId, fecha, otroUsuarioId));
+    }
+
+    private long insertarReserva(String estado) {
+        jdbcTemplate.update("INSERT INTO reservas (activo, asistencia_confirmada, creado_por_admin, fecha, espacio_id,"
+                        + " horario_id, usuario_id, codigo_reserva, estado) VALUES (TRUE, FALSE, FALSE, ?, ?, ?, ?, 'R1', ?)",
+                fecha, espacioId, horarioId, usuarioId, estado);
+        return jdbcTemplate.queryForObject("SELECT MAX(id) FROM reservas", Long.class);
+    }
+}
@@ -0,0 +1,69 @@
+package com.reservatec.scheduler;
+
+import com.reservatec.config.MetricasReservas;
+import com.reservatec.config.RelevoReservasUsuario;
+import com.reservatec.event.ReservaCambiadaEnOtroNodoEvent;
+import com.reservatec.service.ReservaService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class CronometroEmisorTest {
+
+    private final SimpMessagingTemplate plantilla = mock(SimpMessagingTemplate.class);
+    private final ReservaService reservaService = mock(ReservaService.class);
+    private final RelevoReservasUsuario relevo = mock(RelevoReservasUsuario.class);
+    private final CronometroEmisor emisor = new CronometroEmisor(plantilla, reservaService,
+            new MetricasReservas(new SimpleMeterRegistry()), relevo);
+
+    @Test
+    void frameEmitido_seReenviaALosDemasNodos() {
+        Map<String, Object> frame = Map.of("estado", "NINGUNA", "segundos", 0);
+
+        emisor.emitir(7L, frame);
+
+        verify(relevo).avisarCronometro(7L, frame);
+    }
+
+    @Test
+    void frameDeOtroNodo_reemplazaAlTickDelUsuarioSuscrito() {
+        when(reservaService.obtenerTiempoCronometro(7L)).thenReturn(Map.of("estado", "ACTIVA", "segundos", 60L));
+        suscribir("sesion-1", 7L);
+        emisor.tick();
+        clearInvocations(plantilla);
+
+        Map<String, Object> frame = Map.of("estado", "NINGUNA", "segundos", 0);
+        emisor.alCambiarEnOtroNodo(new ReservaCambiadaEnOtroNodoEvent(7L, frame));
+        emisor.tick();
+
+        verify(plantilla, times(1)).convertAndSend(anyString(), any(Object.class));
+        verify(plantilla).convertAndSend("/topic/cronometro/7", frame);
+    }
+
+    @Test
+    void cambioEnOtroNodo_seIgnoraSiElUsuarioNoEstaSuscritoAqui() {
+        emisor.alCambiarEnOtroNodo(new ReservaCambiadaEnOtroNodoEvent(9L, null));
+        emisor.tick();
+
+        verifyNoInteractions(plantilla, reservaService);
+    }
+
+    private void suscribir(String sesion, Long usuarioId) {
+        StompHeaderAccessor cabeceras = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        cabeceras.setSessionId(sesion);
+        cabeceras.setSubscriptionId("sub-" + sesion);
+        cabeceras.setDestination("/topic/cronometro/" + usuarioId);
+        emisor.alSuscribirse(new SessionSubscribeEvent(this,
+                MessageBuilder.createMessage(new byte[0], cabeceras.getMessageHeaders())));
+    }
+}
@@ -0,0 +1,78 @@
+package com.reservatec.scheduler;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Rueda pequeña para recorrer todos los casos con pocos ticks: 4 ranuras de 1 s en el nivel 0
+ * (hasta 4 s), 4 ranuras de 4 s en el nivel 1 (hasta 16 s) y desborde a partir de ahí.
+ */
+class RuedaTemporizadoraTest {
+
+    private RuedaTemporizadora<String> rueda;
+
+    @BeforeEach
+    void crearRueda() {
+        rueda = new RuedaTemporizadora<>(1000, 4, 2, 0);
+    }
+
+    @Test
+    void tareaCercana_venceEnSuTickYNuncaAntes() {
+        rueda.programar(2500, "a");
+
+        assertTrue(rueda.avanzar(2000).isEmpty());
+        assertTrue(rueda.avanzar(2999).isEmpty());
+        assertEquals(List.of("a"), rueda.avanzar(3000));
+        assertTrue(rueda.avanzar(10_000).isEmpty());
+    }
+
+    @Test
+    void instantePasado_seEntregaEnElSiguienteAvance() {
+        rueda.avanzar(5000);
+
+        rueda.programar(1000, "atrasada");
+        rueda.programar(5000, "justa");
+
+        assertEquals(List.of("atrasada", "justa"), rueda.avanzar(5000));
+        assertEquals(0, rueda.tamano());
+    }
+
+    @Test
+    void tareaDelNivelSuperior_bajaDeNivelYVenceEnSuTick() {
+        rueda.programar(8000, "exacta");
+        rueda.programar(8500, "redondeada");
+        rueda.programar(9000, "siguiente");
+
+        assertTrue(rueda.avanzar(7999).isEmpty());
+        assertEquals(List.of("exacta"), rueda.avanzar(8000));
+        assertTrue(rueda.avanzar(8999).isEmpty());
+        assertEquals(List.of("redondeada", "siguiente"), rueda.avanzar(9000));
+    }
+
+    @Test
+    void tareaMasAllaDeTodosLosNiveles_esperaEnElDesborde() {
+        rueda.programar(100_000, "lejana");
+
+        assertTrue(rueda.avanzar(99_999).isEmpty());
+        assertEquals(1, rueda.tamano());
+        assertEquals(List.of("lejana"), rueda.avanzar(100_000));
+        assertEquals(0, rueda.tamano());
+    }
+
+    @Test
+    void avanceDeVariosTicks_entregaTodasLasVencidasYDescuentaElTamano() {
+        rueda.programar(1000, "n0");
+        rueda.programar(6000, "n1");
+        rueda.programar(30_000, "desborde");
+        assertEquals(3, rueda.tamano());
+
+        assertEquals(List.of("n0", "n1"), rueda.avanzar(20_000));
+        assertEquals(1, rueda.tamano());
+        assertEquals(List.of("desborde"), rueda.avanzar(40_000));
+        assertEquals(0, rueda.tamano());
+    }
+}
@@ -0,0 +1,229 @@
+package com.reservatec.service.impl;
+
+import com.reservatec.client.RetencionClient;
+import com.reservatec.dto.ReservaRequestDTO;
+import com.reservatec.entity.Espacio;
+import com.reservatec.entity.Horario;
+import com.reservatec.entity.Usuario;
+import com.reservatec.exception.MotivoRechazo;
+import com.reservatec.exception.ReservaRechazadaException;
+import com.reservatec.repository.EspacioRepository;
+import com.reservatec.repository.HorarioRepository;
+import com.reservatec.repository.UsuarioRepository;
+import com.reservatec.service.ReservaService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compara los dos modos de creación ({@link ReservaServiceImpl.ModoCreacion}) con {@value #SOLICITUDES} usuarios
+ * que llaman a la vez a {@code crearReservaTemporal} por el mismo espacio, horario y fecha. La aplicación corre completa
+ * con el perfil "carga": H2 en modo MySQL y un Redis embebido para el candado del modo DISTRIBUIDO.
+ * <p>
+ * La prueba elimina {@code uk_reservas_slot_vivo} de su base, para que una sola reserva viva dependa únicamente del
+ * mecanismo de cada modo y no de la restricción. Imprime la latencia y el throughput de cada modo.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:concurrencia;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=20000",
+        "logging.level.com.reservatec=ERROR"
+})
+@ActiveProfiles("carga")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReservaCreacionConcurrenciaTest {
+
+    private static final int SOLICITUDES = 300;
+    private static final int HILOS = 64;
+
+    private static RedisServer redis;
+
+    @DynamicPropertySource
+    static void redisEmbebido(DynamicPropertyRegistry registro) throws IOException {
+        int puerto;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            puerto = socket.getLocalPort();
+        }
+        redis = new RedisServer(puerto);
+        redis.start();
+        registro.add("redisson.address", () -> "redis://127.0.0.1:" + puerto);
+    }
+
+    @AfterAll
+    static void detenerRedis() throws IOException {
+        if (redis != null) redis.stop();
+    }
+
+    @Autowired
+    private ReservaService reservaService;
+
+    @Autowired
+    private EspacioRepository espacioRepository;
+
+    @Autowired
+    private HorarioRepository horarioRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private RedissonClient redissonClient;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Espacio espacio;
+    private List<Usuario> usuarios;
+    private final LocalDate fecha = proximoDiaHabil();
+
+    @BeforeAll
+    void sembrar() {
+        jdbcTemplate.execute("DROP INDEX uk_reservas_slot_vivo");
+
+        espacio = new Espacio();
+        espacio.setNombre("Cancha de fútbol");
+        espacio.setAforo(12);
+        espacio = espacioRepository.save(espacio);
+
+        List<Usuario> nuevos = new ArrayList<>();
+        for (int i = 0; i < SOLICITUDES; i++) {
+            Usuario u = new Usuario();
+            u.setCode(String.format("C%05d", i));
+            u.setEmail("concurrente" + i + "@tecsup.edu.pe");
+            u.setName("Usuario " + i);
+            u.setCarrera("Carrera " + i);
+            u.setRol("USER");
+            nuevos.add(u);
+        }
+        usuarios = usuarioRepository.saveAll(nuevos);
+    }
+
+    @ParameterizedTest
+    @EnumSource(ReservaServiceImpl.ModoCreacion.class)
+    void unaSolaSolicitudGanaElHorario(ReservaServiceImpl.ModoCreacion modo) throws Exception {
+        ReservaServiceImpl servicio = AopTestUtils.getTargetObject(reservaService);
+        ReflectionTestUtils.setField(servicio, "modoCreacion", modo);
+
+        // Un horario nuevo por modo, para que cada corrida compita por un horario libre
+        Horario horario = new Horario();
+        horario.setHoraInicio(LocalTime.of(7 + modo.ordinal(), 0));
+        horario.setHoraFin(LocalTime.of(8 + modo.ordinal(), 0));
+        horario = horarioRepository.save(horario);
+
+        ReservaRequestDTO dto = new ReservaRequestDTO();
+        dto.setEspacioId(espacio.getId());
+        dto.setHorarioId(horario.getId());
+        dto.setFecha(fecha);
+
+        Resultado resultado = competir(dto);
+        resultado.reportar(modo);
+
+        assertEquals(1, resultado.creadas, "reservas creadas");
+        assertEquals(SOLICITUDES - 1, resultado.rechazos.values().stream().mapToInt(Integer::intValue).sum(),
+                "las demás solicitudes se rechazan por una regla, sin errores: " + resultado.errores);
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM reservas WHERE espacio_id = ? AND horario_id = ?"
+                + " AND fecha = ? AND slot_vivo = 1", Integer.class, espacio.getId(), horario.getId(), fecha));
+        // Solo el modo DISTRIBUIDO guarda la retención temporal en Redis
+        assertEquals(modo == ReservaServiceImpl.ModoCreacion.DISTRIBUIDO, redissonClient.getBucket(
+                RetencionClient.clave(espacio.getId(), horario.getId(), fecha)).isExists());
+    }
+
+    /**
+     * Lanza todas las solicitudes a la vez, una por usuario, y clasifica sus resultados.
+     */
+    private Resultado competir(ReservaRequestDTO dto) throws Exception {
+        ExecutorService hilos = Executors.newFixedThreadPool(HILOS);
+        CountDownLatch salida = new CountDownLatch(1);
+        List<Future<Intento>> intentos = new ArrayList<>();
+        for (Usuario usuario : usuarios) {
+            intentos.add(hilos.submit(() -> {
+                salida.await();
+                long inicio = System.nanoTime();
+                try {
+                    reservaService.crearReservaTemporal(dto, usuario, false);
+                    return new Intento(System.nanoTime() - inicio, null, null);
+                } catch (ReservaRechazadaException e) {
+                    return new Intento(System.nanoTime() - inicio, e.getMotivo(), null);
+                } catch (RuntimeException e) {
+                    return new Intento(System.nanoTime() - inicio, null, e.toString());
+                }
+            }));
+        }
+
+        long inicio = System.nanoTime();
+        salida.countDown();
+        Resultado resultado = new Resultado();
+        for (Future<Intento> intento : intentos) {
+            resultado.agregar(intento.get(120, TimeUnit.SECONDS));
+        }
+        resultado.nanos = System.nanoTime() - inicio;
+        hilos.shutdown();
+        return resultado;
+    }
+
+    private record Intento(long nanos, MotivoRechazo motivo, String error) {
+    }
+
+    private static final class Resultado {
+
+        private final List<Long> latencias = new ArrayList<>();
+        private final Map<MotivoRechazo, Integer> rechazos = new EnumMap<>(MotivoRechazo.class);
+        private final List<String> errores = new ArrayList<>();
+        private int creadas;
+        private long nanos;
+
+        void agregar(Intento intento) {
+            latencias.add(intento.nanos());
+            if (intento.error() != null) {
+                errores.add(intento.error());
+            } else if (intento.motivo() != null) {
+                rechazos.merge(intento.motivo(), 1, Integer::sum);
+            } else {
+                creadas++;
+            }
+        }
+
+        void reportar(ReservaServiceImpl.ModoCreacion modo) {
+            Collections.sort(latencias);
+            double segundos = nanos / 1e9;
+            System.out.printf("%n=== %s: %d solicitudes, %d hilos, %.2f s, %.0f solicitudes/s ===%n",
+                    modo, latencias.size(), HILOS, segundos, latencias.size() / segundos);
+            System.out.printf("latencia ms: p50=%.1f p95=%.1f p99=%.1f max=%.1f%n",
+                    percentil(0.50), percentil(0.95), percentil(0.99), percentil(1.0));
+            System.out.printf("creadas=%d rechazos=%s errores=%d%n", creadas, rechazos, errores.size());
+        }
+
+        private double percentil(double p) {
+            int indice = (int) Math.ceil(p * latencias.size()) - 1;
+            return latencias.get(Math.max(indice, 0)) / 1e6;
+        }
+    }
+
+    private static LocalDate proximoDiaHabil() {
+        LocalDate dia = LocalDate.now().plusDays(2);
+        while (dia.getDayOfWeek() == DayOfWeek.SUNDAY) {
+            dia = dia.plusDays(1);
+        }
+        return dia;
+    }
+}
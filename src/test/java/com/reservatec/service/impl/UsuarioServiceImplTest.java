@@ -0,0 +1,61 @@
+package com.reservatec.service.impl;
+
+import com.reservatec.cache.BusquedaIndex;
+import com.reservatec.client.UsuarioClient;
+import com.reservatec.dto.PaginaDTO;
+import com.reservatec.entity.Usuario;
+import com.reservatec.repository.UsuarioRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class UsuarioServiceImplTest {
+
+    private final UsuarioRepository usuarioRepository = mock(UsuarioRepository.class);
+    private final BusquedaIndex busquedaIndex = mock(BusquedaIndex.class);
+    private final UsuarioServiceImpl servicio =
+            new UsuarioServiceImpl(usuarioRepository, mock(UsuarioClient.class), busquedaIndex);
+
+    @Test
+    void consultaCorta_usaLaConsultaConLikeYPaginaEnMemoria() {
+        when(busquedaIndex.admite(" an ")).thenReturn(false);
+        when(usuarioRepository.findByNameContainingIgnoreCaseOrCodeContainingIgnoreCaseOrEmailContainingIgnoreCase("an", "an", "an"))
+                .thenReturn(List.of(usuario(1L), usuario(2L), usuario(3L)));
+
+        PaginaDTO<Usuario> pagina = servicio.buscar(" an ", 2, 5);
+
+        assertEquals(List.of(3L), pagina.getContenido().stream().map(Usuario::getId).toList());
+        assertEquals(3, pagina.getTotal());
+        verify(busquedaIndex, never()).buscarUsuarios(any());
+    }
+
+    @Test
+    void consultaLarga_cargaSoloLaPaginaEnElOrdenDelIndice() {
+        when(busquedaIndex.admite("ana")).thenReturn(true);
+        when(busquedaIndex.buscarUsuarios("ana")).thenReturn(List.of(5L, 9L, 7L, 4L));
+        // El 7 ya no existe en la base de datos
+        when(usuarioRepository.findAllById(List.of(9L, 7L))).thenReturn(List.of(usuario(9L)));
+
+        PaginaDTO<Usuario> pagina = servicio.buscar("ana", 1, 2);
+
+        assertEquals(List.of(9L), pagina.getContenido().stream().map(Usuario::getId).toList());
+        assertEquals(1, pagina.getInicio());
+        assertEquals(4, pagina.getTotal());
+    }
+
+    @Test
+    void rangoInvalido_seRechaza() {
+        assertThrows(IllegalArgumentException.class, () -> servicio.buscar("ana", -1, 10));
+        assertThrows(IllegalArgumentException.class, () -> servicio.buscar("ana", 0, 501));
+    }
+
+    private static Usuario usuario(Long id) {
+        Usuario u = new Usuario();
+        u.setId(id);
+        return u;
+    }
+}
@@ -0,0 +1,34 @@
+package com.reservatec.support;
+
+import com.reservatec.config.MetricasPeticion;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Presupuesto de sentencias SQL por petición para pruebas con MockMvc: lee la cabecera
+ * {@value MetricasPeticion#CABECERA_SENTENCIAS}, así que el contexto debe arrancar con
+ * {@code reservas.sql.cabecera=true}. Un endpoint con N+1 (por ejemplo, al mapear entidades con
+ * {@code ReservaMapper} fuera de una consulta proyectada) excede el presupuesto en cuanto hay
+ * más filas que sentencias permitidas.
+ *
+ * <pre>mockMvc.perform(get("/api/reservas/mis-reservas")).andExpect(PresupuestoSql.maximo(2));</pre>
+ */
+public final class PresupuestoSql {
+
+    private PresupuestoSql() {
+    }
+
+    public static ResultMatcher maximo(int sentencias) {
+        return resultado -> {
+            String cabecera = resultado.getResponse().getHeader(MetricasPeticion.CABECERA_SENTENCIAS);
+            assertNotNull(cabecera, "Falta la cabecera " + MetricasPeticion.CABECERA_SENTENCIAS
+                    + "; arranca el contexto con reservas.sql.cabecera=true");
+
+            int ejecutadas = Integer.parseInt(cabecera);
+            assertTrue(ejecutadas <= sentencias, () -> String.format("%s %s ejecutó %d sentencias SQL; el presupuesto es %d",
+                    resultado.getRequest().getMethod(), resultado.getRequest().getRequestURI(), ejecutadas, sentencias));
+        };
+    }
+}
@@ -0,0 +1,63 @@
+package com.reservatec.util;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtVerificadorTest {
+
+    private static final String SECRETO = "clave-de-prueba-de-al-menos-treinta-y-dos-bytes";
+
+    private final JwtUtil jwtUtil = new JwtUtil(SECRETO, 3_600_000);
+    private final SimpleMeterRegistry registro = new SimpleMeterRegistry();
+    private final JwtVerificador verificador = new JwtVerificador(jwtUtil, registro, 4);
+
+    @Test
+    void cacheLlena_descartaSoloLosQueVencenAntes() {
+        String[] tokens = new String[5];
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = token((long) i + 1, (i + 1) * 3_600_000L);
+            verificador.verificar(tokens[i]);
+        }
+        assertEquals(4.0, tamano());
+
+        // El primero, que vencía antes, salió de la caché; los demás siguen siendo aciertos
+        for (int i = 1; i < tokens.length; i++) {
+            verificador.verificar(tokens[i]);
+        }
+        assertEquals(4.0, aciertos());
+        verificador.verificar(tokens[0]);
+        assertEquals(4.0, aciertos());
+    }
+
+    @Test
+    void verificar_devuelveElUsuarioDelToken() {
+        CustomUserDetails usuario = verificador.verificar(token(7L, 60_000));
+
+        assertEquals(7L, usuario.id());
+        assertEquals("usuario7@tecsup.edu.pe", usuario.getUsername());
+    }
+
+    private String token(Long id, long vigenciaMs) {
+        return Jwts.builder()
+                .setSubject("usuario" + id + "@tecsup.edu.pe")
+                .claim("id", id)
+                .claim("rol", "USER")
+                .setExpiration(new Date(System.currentTimeMillis() + vigenciaMs))
+                .signWith(jwtUtil.getKey(), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    private double tamano() {
+        return registro.get("jwt.cache.tamano").gauge().value();
+    }
+
+    private double aciertos() {
+        return registro.get("jwt.cache").tag("resultado", "acierto").counter().count();
+    }
+}